@@ -0,0 +1,58 @@
+package com.example.bednovac.benchmark;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Exchange;
+import com.example.bednovac.service.ApiClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Celá cesta {@link ApiClient} (HTTP přes loopback, transportní vrstva a
+ * parsování odpovědi) proti lokálnímu stub serveru. Samotné parsování bez
+ * HTTP měří {@link ResponseParsingBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiClientBenchmark {
+
+    private StubApiServer stubServer;
+    private ApiClient apiClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stubServer = new StubApiServer();
+        apiClient = stubServer.newApiClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stubServer.close();
+    }
+
+    @Benchmark
+    public Case fetchCasePrice() {
+        return apiClient.fetchCasePrice("Kilowatt Case").join();
+    }
+
+    @Benchmark
+    public Exchange fetchExchangeRates() {
+        return apiClient.fetchExchangeRates().join();
+    }
+}
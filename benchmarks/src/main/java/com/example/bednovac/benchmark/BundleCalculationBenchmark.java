@@ -0,0 +1,74 @@
+package com.example.bednovac.benchmark;
+
+import com.example.bednovac.service.BundleCalculator;
+import com.example.bednovac.service.BundleResult;
+import com.example.bednovac.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Výpočet balíčků (bedna + klíč) v {@link BundleCalculator}: jeden výpočet
+ * včetně převodu cen na setiny a formátování labelu (cesta z controlleru) a
+ * dávkový výpočet nad polem rozpočtů bez alokací.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BundleCalculationBenchmark {
+
+    @Param({"1024"})
+    private int budgets;
+
+    private long amountMinor = 250_000;
+    private double casePrice = 10.39;
+    private double keyPrice = Constants.KEY_PRICE_USD;
+
+    private long casePriceMinor;
+    private long keyPriceMinor;
+    private long[] amountsMinor;
+    private long[] bundles;
+    private long[] remainingMinor;
+
+    @Setup
+    public void setUp() {
+        casePriceMinor = BundleCalculator.toMinorUnits(casePrice);
+        keyPriceMinor = BundleCalculator.toMinorUnits(keyPrice);
+        amountsMinor = new long[budgets];
+        for (int i = 0; i < budgets; i++) {
+            amountsMinor[i] = ThreadLocalRandom.current().nextLong(1_000_000);
+        }
+        bundles = new long[budgets];
+        remainingMinor = new long[budgets];
+    }
+
+    @Benchmark
+    public void bundleCalculation(Blackhole blackhole) {
+        BundleResult result = BundleCalculator.calculate(amountMinor, BundleCalculator.toMinorUnits(casePrice),
+                BundleCalculator.toMinorUnits(keyPrice));
+        blackhole.consume(result);
+        blackhole.consume(String.format("Bedny: %d", result.getBundles())); // Formátování labelu je součástí cesty
+    }
+
+    @Benchmark
+    public void bulkBundleCalculation(Blackhole blackhole) {
+        BundleCalculator.calculate(amountsMinor, casePriceMinor, keyPriceMinor, bundles, remainingMinor);
+        blackhole.consume(bundles);
+        blackhole.consume(remainingMinor);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.bednovac.benchmark;
+
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.model.Exchange;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark převodů měn v {@link Exchange}: všechny tři větve
+ * {@code convert} (z base měny, do base měny, křížový kurz), hromadný převod
+ * 1000 položek a {@code getRate}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExchangeBenchmark {
+
+    private final Exchange exchange = new Exchange(Currency.USD, Map.of(Currency.EUR, 0.934, Currency.CZK, 23.094));
+
+    // Nefinální pole, aby JIT nemohl výsledky předpočítat jako konstanty
+    private double amount = 1234.56;
+    private Currency usd = Currency.USD;
+    private Currency eur = Currency.EUR;
+    private Currency czk = Currency.CZK;
+
+    private final double[] inventory = new double[1000];
+    private final double[] converted = new double[1000];
+
+    {
+        for (int i = 0; i < inventory.length; i++) {
+            inventory[i] = 0.03 * (i + 1);
+        }
+    }
+
+    @Benchmark
+    public double convertFromBase() {
+        return exchange.convert(amount, usd, czk);
+    }
+
+    @Benchmark
+    public double convertToBase() {
+        return exchange.convert(amount, czk, usd);
+    }
+
+    @Benchmark
+    public double convertCross() {
+        return exchange.convert(amount, eur, czk);
+    }
+
+    @Benchmark
+    public double[] convertInventory() {
+        exchange.convert(inventory, usd, czk, converted);
+        return converted;
+    }
+
+    @Benchmark
+    public double getRate() {
+        return exchange.getRate(czk);
+    }
+}
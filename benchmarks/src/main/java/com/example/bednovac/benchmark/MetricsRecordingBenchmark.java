@@ -0,0 +1,52 @@
+package com.example.bednovac.benchmark;
+
+import com.example.bednovac.metrics.CacheStats;
+import com.example.bednovac.metrics.HistogramSnapshot;
+import com.example.bednovac.metrics.LatencyHistogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cena stále zapnutých metrik na horké cestě: zápis latence do sdíleného
+ * {@link LatencyHistogram} a započítání zásahu cache z více vláken najednou,
+ * a pro srovnání výpočet snímku s percentily. Alokace ukáže {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsRecordingBenchmark {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final CacheStats cacheStats = new CacheStats();
+
+    @Benchmark
+    @Threads(4)
+    public void recordLatency() {
+        histogram.record(ThreadLocalRandom.current().nextLong(100_000_000)); // Do 100 ms
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void countCacheHit() {
+        cacheStats.hit();
+    }
+
+    @Benchmark
+    public HistogramSnapshot snapshot() {
+        return histogram.snapshot();
+    }
+}
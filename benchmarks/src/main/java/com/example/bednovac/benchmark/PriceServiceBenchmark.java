@@ -0,0 +1,73 @@
+package com.example.bednovac.benchmark;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.service.ApiClient;
+import com.example.bednovac.service.PriceService;
+import com.example.bednovac.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence zásahu do cache {@link PriceService#getCasePrice(String)} při
+ * souběžném přístupu z více vláken. Cache se před měřením zahřeje přes
+ * lokální stub API, měří se tedy jen cesta bez sítě.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PriceServiceBenchmark {
+
+    private final List<String> caseNames = Constants.TRACKED_CASES;
+
+    private StubApiServer stubServer;
+    private PriceService priceService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stubServer = new StubApiServer();
+        ApiClient apiClient = stubServer.newApiClient();
+        priceService = new PriceService(apiClient, null); // Bez perzistentní cache
+        priceService.getCasePrices(caseNames).join();
+        priceService.getExchange().join();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        stubServer.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Case cacheHitSingleThread() {
+        return priceService.getCasePrice(randomCase()).join();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Case cacheHitContended() {
+        return priceService.getCasePrice(randomCase()).join();
+    }
+
+    private String randomCase() {
+        return caseNames.get(ThreadLocalRandom.current().nextInt(caseNames.size()));
+    }
+}
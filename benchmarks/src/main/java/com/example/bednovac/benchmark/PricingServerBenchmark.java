@@ -0,0 +1,104 @@
+package com.example.bednovac.benchmark;
+
+import com.example.bednovac.server.PricingServer;
+import com.example.bednovac.service.PriceService;
+import com.example.bednovac.util.Constants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Zátěžový test lokálního {@link PricingServer}: propustnost endpointů
+ * {@code /case} a {@code /bundle} při zásahu do cache. Cache se před měřením
+ * zahřeje přes lokální stub API a klienti posílají požadavky z více vláken
+ * současně, měří se tedy režie serveru (HTTP, JSON, virtuální vlákna).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true") // Stub server vytváří HttpServer dřív než PricingServer
+@State(Scope.Benchmark)
+public class PricingServerBenchmark {
+
+    private final List<URI> caseUris = new ArrayList<>();
+    private final List<URI> bundleUris = new ArrayList<>();
+
+    private StubApiServer stubServer;
+    private PriceService priceService;
+    private PricingServer pricingServer;
+    private HttpClient httpClient;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        stubServer = new StubApiServer();
+        priceService = new PriceService(stubServer.newApiClient(), null); // Bez perzistentní cache
+        priceService.getCasePrices(Constants.TRACKED_CASES).join();
+        priceService.getExchange().join();
+        pricingServer = new PricingServer(priceService, 0);
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+        String base = "http://127.0.0.1:" + pricingServer.getPort();
+        for (String caseName : Constants.TRACKED_CASES) {
+            String encoded = URLEncoder.encode(caseName, StandardCharsets.UTF_8);
+            caseUris.add(URI.create(base + "/case?name=" + encoded));
+            bundleUris.add(URI.create(base + "/bundle?case=" + encoded + "&amount=2500&currency=USD"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pricingServer.close();
+        stubServer.close();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String caseSingleClient() throws IOException, InterruptedException {
+        return get(caseUris);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String caseConcurrentClients() throws IOException, InterruptedException {
+        return get(caseUris);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public String bundleConcurrentClients() throws IOException, InterruptedException {
+        return get(bundleUris);
+    }
+
+    private String get(List<URI> uris) throws IOException, InterruptedException {
+        URI uri = uris.get(ThreadLocalRandom.current().nextInt(uris.size()));
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
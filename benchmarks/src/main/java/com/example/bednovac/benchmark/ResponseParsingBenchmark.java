@@ -0,0 +1,108 @@
+package com.example.bednovac.benchmark;
+
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.model.Exchange;
+import com.example.bednovac.service.ResponseParser;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Porovnání proudového parsování ({@link ResponseParser}) s původním
+ * postupem: tělo jako String, celý strom přes {@code readTree} a regulární
+ * výraz na každou cenu.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseParsingBenchmark {
+
+    // Cena bez oddělovače tisíců - původní regex by z "$1,234.56" udělal "1.234.56"
+    static final String PRICE_OVERVIEW_JSON =
+            "{\"success\":true,\"lowest_price\":\"$1.23\",\"volume\":\"12,345\",\"median_price\":\"$1.25\"}";
+
+    static final String EXCHANGE_RATES_JSON = "{\"amount\":1.0,\"base\":\"USD\",\"date\":\"2024-06-14\",\"rates\":{"
+            + "\"AUD\":1.5123,\"BGN\":1.8267,\"BRL\":5.3721,\"CAD\":1.3741,\"CHF\":0.8923,\"CNY\":7.2541,"
+            + "\"CZK\":23.094,\"DKK\":6.9663,\"EUR\":0.934,\"GBP\":0.7883,\"HKD\":7.8106,\"HUF\":371.07,"
+            + "\"IDR\":16412,\"ILS\":3.7195,\"INR\":83.55,\"ISK\":139.45,\"JPY\":157.41,\"KRW\":1381.43,"
+            + "\"MXN\":18.4978,\"MYR\":4.7175,\"NOK\":10.6683,\"NZD\":1.6335,\"PHP\":58.72,\"PLN\":4.0768,"
+            + "\"RON\":4.6465,\"SEK\":10.4934,\"SGD\":1.3531,\"THB\":36.73,\"TRY\":32.316,\"ZAR\":18.3598}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ResponseParser responseParser = new ResponseParser(new JsonFactory());
+
+    private byte[] priceOverviewBytes;
+    private byte[] exchangeRatesBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        priceOverviewBytes = PRICE_OVERVIEW_JSON.getBytes(StandardCharsets.UTF_8);
+        exchangeRatesBytes = EXCHANGE_RATES_JSON.getBytes(StandardCharsets.UTF_8);
+        // Obě cesty musí vrátit stejnou cenu, jinak srovnání nemá smysl
+        double streaming = casePriceStreaming();
+        double legacy = casePriceLegacyTree();
+        if (Double.compare(streaming, legacy) != 0) {
+            throw new IllegalStateException("Parsers disagree on the price fixture: streaming=" + streaming
+                    + ", legacy=" + legacy);
+        }
+    }
+
+    @Benchmark
+    public double casePriceStreaming() throws IOException {
+        return responseParser.parsePriceOverview(priceOverviewBytes).getBestPrice();
+    }
+
+    @Benchmark
+    public double casePriceLegacyTree() throws IOException {
+        // Původní ApiClient: String tělo, strom a regex
+        String response = new String(priceOverviewBytes, StandardCharsets.UTF_8);
+        JsonNode rootNode = objectMapper.readTree(response);
+        String lowestPriceStr = rootNode.path("lowest_price").asText(null);
+        String normalized = lowestPriceStr.replaceAll("[^0-9,\\.]", "").replace(",", ".");
+        return Double.parseDouble(normalized);
+    }
+
+    @Benchmark
+    public Exchange exchangeRatesStreaming() throws IOException {
+        return responseParser.parseExchangeRates(exchangeRatesBytes);
+    }
+
+    @Benchmark
+    public Exchange exchangeRatesLegacyTree() throws IOException {
+        String responseBody = new String(exchangeRatesBytes, StandardCharsets.UTF_8);
+        JsonNode rootNode = objectMapper.readTree(responseBody);
+        Currency baseCurrency = Currency.fromString(rootNode.path("base").asText("USD"));
+        Map<Currency, Double> rates = new HashMap<>();
+        JsonNode ratesNode = rootNode.path("rates");
+        for (Currency currency : Currency.values()) {
+            if (ratesNode.has(currency.name())) {
+                rates.put(currency, ratesNode.path(currency.name()).asDouble(0.0));
+            }
+        }
+        return new Exchange(baseCurrency, rates);
+    }
+
+    @Benchmark
+    public double priceScanner() {
+        return ResponseParser.parsePrice("1 234,56 zł");
+    }
+}
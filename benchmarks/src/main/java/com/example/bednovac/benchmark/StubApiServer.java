@@ -0,0 +1,59 @@
+package com.example.bednovac.benchmark;
+
+import com.example.bednovac.service.ApiClient;
+import com.example.bednovac.service.HttpTransport;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+/**
+ * Lokální náhrada Steam a frankfurter API pro benchmarky. Vrací pevné
+ * odpovědi, takže měření nezávisí na síti ani na rate limitech.
+ */
+final class StubApiServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    StubApiServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/market/priceoverview/",
+                exchange -> respond(exchange, ResponseParsingBenchmark.PRICE_OVERVIEW_JSON));
+        server.createContext("/latest",
+                exchange -> respond(exchange, ResponseParsingBenchmark.EXCHANGE_RATES_JSON));
+        server.createContext("/currencies",
+                exchange -> respond(exchange, "{\"CZK\":\"Czech Koruna\",\"EUR\":\"Euro\",\"PLN\":\"Polish Złoty\","
+                        + "\"USD\":\"United States Dollar\"}"));
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    /**
+     * Vytvoří ApiClient, který místo skutečných API volá tento server.
+     */
+    ApiClient newApiClient() {
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        return new ApiClient(new HttpTransport(),
+                base + "/market/priceoverview/?appid=%s&currency=%s&market_hash_name=%s",
+                base + "/latest?base=USD");
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
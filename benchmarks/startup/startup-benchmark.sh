@@ -0,0 +1,44 @@
+#!/bin/sh
+# Startovací benchmark runtime image: čas od spuštění procesu do prvního snímku
+# a rezidentní paměť (RSS) v tu chvíli. Aplikace se spouští s vlastností
+# bednovac.startup.probe, po prvním snímku vypíše měření a sama se ukončí.
+#
+# Použití: startup-benchmark.sh <adresář image> [počet běhů]
+# Srovnání obou image (nejdřív mvn javafx:jlink a mvn -Pstartup package):
+#   benchmarks/startup/startup-benchmark.sh target/image 20
+#   benchmarks/startup/startup-benchmark.sh target/image-lean 20
+#
+# První běh se nezapočítává (zahřeje diskovou cache). Vypisuje medián a
+# minimum; měřte na nečinném stroji se stejným rozlišením a stejnou cache cen.
+set -e
+
+IMAGE=${1:?"usage: startup-benchmark.sh <image-dir> [runs]"}
+RUNS=${2:-10}
+ARCHIVE="$IMAGE/lib/bednovac.jsa"
+MAIN=bednovac/com.example.bednovac.CaseHarrdener
+RESULTS=$(mktemp)
+trap 'rm -f "$RESULTS"' EXIT
+
+run() {
+    if [ -f "$ARCHIVE" ]; then
+        "$IMAGE/bin/java" -XX:SharedArchiveFile="$ARCHIVE" -Dbednovac.startup.probe=true -m "$MAIN"
+    else
+        "$IMAGE/bin/java" -Dbednovac.startup.probe=true -m "$MAIN"
+    fi | grep '^STARTUP'
+}
+
+run > /dev/null
+i=0
+while [ "$i" -lt "$RUNS" ]; do
+    run | sed 's/.*firstFrameMs=\([0-9-]*\) rssKb=\([0-9-]*\).*/\1 \2/' >> "$RESULTS"
+    i=$((i + 1))
+done
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+echo "image:              $IMAGE ($(du -sk "$IMAGE" | cut -f1) kB, AppCDS: $([ -f "$ARCHIVE" ] && echo yes || echo no))"
+echo "runs:               $RUNS"
+echo "first frame median: $(cut -d' ' -f1 "$RESULTS" | median) ms (min $(cut -d' ' -f1 "$RESULTS" | sort -n | head -1) ms)"
+echo "RSS median:         $(cut -d' ' -f2 "$RESULTS" | median) kB"
@@ -1,5 +1,9 @@
 package com.example.bednovac;
 
+import com.example.bednovac.controller.MainController;
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.service.AppServices;
+import com.example.bednovac.util.Constants;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
@@ -8,6 +12,7 @@ import javafx.stage.Stage;
 import java.io.IOException;
 import java.net.URL;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Hlavní třída aplikace `CaseHarrdener`, která spouští JavaFX aplikaci.
@@ -15,6 +20,20 @@ import java.util.Objects;
  */
 public class CaseHarrdener extends Application {
 
+    private MainController controller;
+
+    private CompletableFuture<AppServices> services;
+
+    /**
+     * Spustí přípravu služeb a stahování úvodních dat (kurzy, cena výchozí
+     * bedny) na vlákně na pozadí. Síť tak běží souběžně s načítáním FXML a CSS
+     * ve {@link #start(Stage)}.
+     */
+    @Override
+    public void init() {
+        services = AppServices.prepareAsync(Constants.TRACKED_CASES.get(0), Currency.USD);
+    }
+
     /**
      * Hlavní vstupní bod pro JavaFX aplikaci.
      * Načítá FXML soubor, nastavuje scénu a zobrazuje hlavní okno.
@@ -25,9 +44,20 @@ public class CaseHarrdener extends Application {
     @Override
     public void start(Stage stage) throws IOException {
         FXMLLoader fxmlLoader = new FXMLLoader(CaseHarrdener.class.getResource("/com/example/bednovac/MainView.fxml"));
+        fxmlLoader.setControllerFactory(type -> {
+            if (type == MainController.class) {
+                return new MainController(services); // Controller převezme služby připravované v init()
+            }
+            try {
+                return type.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Cannot create controller " + type.getName(), e);
+            }
+        });
         URL fxmlUrl = CaseHarrdener.class.getResource("/com/example/bednovac/MainView.fxml");
         System.out.println("FXML path: " + fxmlUrl);
         Scene scene = new Scene(fxmlLoader.load(), 600, 400);
+        controller = fxmlLoader.getController();
 
         // Načtení a aplikace CSS stylů
         System.out.println(CaseHarrdener.class.getResource("/com/example/bednovac/Style.css"));
@@ -36,9 +66,22 @@ public class CaseHarrdener extends Application {
 
         stage.setTitle("Case Harrdener");
         stage.setScene(scene);
+        StartupProbe.install(scene); // Jen pro startovací benchmark / tréninkový běh AppCDS
         stage.show();
     }
 
+    /**
+     * Volá se při ukončení aplikace. Zastaví služby běžící na pozadí.
+     */
+    @Override
+    public void stop() {
+        if (controller != null) {
+            controller.shutdown();
+        } else if (services != null) {
+            services.thenAccept(AppServices::close); // Okno se nepodařilo vytvořit, služby ale běží
+        }
+    }
+
     /**
      * Hlavní metoda programu, která spouští JavaFX aplikaci.
      *
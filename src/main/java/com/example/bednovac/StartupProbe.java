@@ -0,0 +1,72 @@
+package com.example.bednovac;
+
+import com.example.bednovac.util.Constants;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.scene.Scene;
+import javafx.util.Duration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * Měření startu aplikace pro startovací benchmark a tréninkový běh AppCDS.
+ * <p>
+ * Zapíná se systémovou vlastností {@value Constants#STARTUP_PROBE_PROPERTY}.
+ * Po prvním pulsu scény (rozvržení prvního snímku) vypíše na standardní
+ * výstup řádek {@code STARTUP firstFrameMs=... rssKb=...} s časem od spuštění
+ * procesu a velikostí rezidentní paměti a po volitelné prodlevě aplikaci
+ * ukončí. Prodleva se hodí při tréninku, aby se stihly načíst i třídy
+ * používané po prvním snímku (síť, parsování JSON, výpočet).
+ */
+final class StartupProbe {
+
+    private StartupProbe() {
+    }
+
+    /**
+     * Pokud je měření zapnuté, zaregistruje se na první puls scény.
+     *
+     * @param scene Scéna hlavního okna, ještě před zobrazením.
+     */
+    static void install(Scene scene) {
+        if (!Boolean.getBoolean(Constants.STARTUP_PROBE_PROPERTY)) {
+            return;
+        }
+        scene.addPostLayoutPulseListener(new Runnable() {
+            @Override
+            public void run() {
+                scene.removePostLayoutPulseListener(this);
+                System.out.printf("STARTUP firstFrameMs=%d rssKb=%d%n", sinceProcessStart(), residentKb());
+                long delay = Long.getLong(Constants.STARTUP_PROBE_EXIT_DELAY_PROPERTY, 0);
+                PauseTransition exit = new PauseTransition(Duration.millis(delay));
+                exit.setOnFinished(event -> Platform.exit());
+                exit.play();
+            }
+        });
+    }
+
+    private static long sinceProcessStart() {
+        return ProcessHandle.current().info().startInstant()
+                .map(start -> java.time.Duration.between(start, Instant.now()).toMillis())
+                .orElse(-1L);
+    }
+
+    /**
+     * @return Rezidentní paměť procesu v kB, nebo -1 mimo Linux.
+     */
+    private static long residentKb() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Jen Linux má /proc; jinde se paměť neměří
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.bednovac.cli;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.service.ApiClient;
+import com.example.bednovac.service.BundleCalculator;
+import com.example.bednovac.service.BundleResult;
+import com.example.bednovac.service.PriceCacheStore;
+import com.example.bednovac.service.PriceService;
+import com.example.bednovac.util.Constants;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Vstupní bod pro dávkový režim bez grafického rozhraní (skripty, cron).
+ * Používá přímo {@link PriceService} a {@link ApiClient} a nenačítá žádné
+ * třídy JavaFX, takže startuje výrazně rychleji než GUI.
+ * <p>
+ * Čte dotazy ve formátu CSV {@code částka,měna,bedna} (jeden na řádek)
+ * ze souboru nebo ze standardního vstupu. Pokud řádek obsahuje středník,
+ * použije se jako oddělovač a částka smí mít desetinnou čárku. Prázdné řádky,
+ * komentáře ({@code #}) a hlavička se přeskakují. Dotazy se zpracovávají po
+ * dávkách: ceny všech beden v dávce se zjistí souhrnně pro každou měnu a
+ * výsledky se hned vypisují na standardní výstup ve stejném pořadí.
+ * <pre>
+ * java -cp &lt;classpath&gt; com.example.bednovac.cli.HeadlessMain [--verbose] [--no-cache] [soubor.csv | -]
+ * </pre>
+ * Návratový kód je 0, pokud se podařilo zpracovat všechny dotazy, 1, pokud
+ * některý skončil chybou, a 2 při chybném použití.
+ */
+public final class HeadlessMain {
+
+    private static final String OUTPUT_HEADER = "amount,currency,case,bundles,remaining,case_price,key_price,error";
+
+    private final PriceService priceService;
+    private final Writer out;
+
+    private HeadlessMain(PriceService priceService, Writer out) {
+        this.priceService = priceService;
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /**
+     * Zpracuje argumenty příkazové řádky a všechny dotazy ze vstupu.
+     *
+     * @param args Argumenty příkazové řádky.
+     * @param in   Standardní vstup.
+     * @param out  Standardní výstup (výsledky).
+     * @param err  Chybový výstup (nápověda a chyby).
+     * @return Návratový kód procesu.
+     */
+    static int run(String[] args, InputStream in, PrintStream out, PrintStream err) {
+        boolean verbose = false;
+        boolean persistentCache = true;
+        String input = "-";
+        for (String arg : args) {
+            switch (arg) {
+                case "--verbose":
+                    verbose = true;
+                    break;
+                case "--no-cache":
+                    persistentCache = false;
+                    break;
+                case "-h":
+                case "--help":
+                    printUsage(err);
+                    return 0;
+                default:
+                    if (arg.startsWith("--")) {
+                        err.println("Unknown option: " + arg);
+                        printUsage(err);
+                        return 2;
+                    }
+                    input = arg;
+            }
+        }
+        if (!verbose && LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME) instanceof Logger root) {
+            root.setLevel(Level.WARN); // Výstup je pro skripty, informační logy jen na požádání
+        }
+
+        PriceService priceService = new PriceService(new ApiClient(),
+                persistentCache ? PriceCacheStore.defaultStore() : null);
+        try (BufferedReader reader = "-".equals(input)
+                ? new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            boolean allSucceeded = new HeadlessMain(priceService, writer).process(reader);
+            writer.flush();
+            return allSucceeded ? 0 : 1;
+        } catch (IOException e) {
+            err.println("Failed to read input: " + e.getMessage());
+            return 2;
+        } finally {
+            priceService.close(); // Uloží stažené ceny pro další spuštění
+        }
+    }
+
+    private static void printUsage(PrintStream err) {
+        err.println("Usage: HeadlessMain [--verbose] [--no-cache] [queries.csv | -]");
+        err.println("Each input line: amount,currency,case (or amount;currency;case with decimal comma).");
+        err.println("Output: " + OUTPUT_HEADER);
+    }
+
+    /**
+     * Zpracuje všechny dotazy ze vstupu po dávkách.
+     *
+     * @return True, pokud všechny dotazy skončily úspěšně.
+     */
+    private boolean process(BufferedReader reader) throws IOException {
+        out.write(OUTPUT_HEADER);
+        out.write('\n');
+        boolean allSucceeded = true;
+        List<Query> batch = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            Query query = Query.parse(line, code -> priceService.findCurrency(code).join());
+            if (query == null) {
+                continue;
+            }
+            batch.add(query);
+            if (batch.size() >= Constants.CLI_BATCH_SIZE) {
+                allSucceeded &= processBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            allSucceeded &= processBatch(batch);
+        }
+        return allSucceeded;
+    }
+
+    /**
+     * Zjistí ceny pro celou dávku (jedno souhrnné volání na měnu) a vypíše
+     * výsledky.
+     */
+    private boolean processBatch(List<Query> batch) throws IOException {
+        Map<Currency, Set<String>> casesByCurrency = new LinkedHashMap<>();
+        for (Query query : batch) {
+            if (query.error == null) {
+                casesByCurrency.computeIfAbsent(query.currency, c -> new LinkedHashSet<>()).add(query.caseName);
+            }
+        }
+        Map<Currency, CompletableFuture<Map<String, Case>>> casePrices = new LinkedHashMap<>();
+        Map<Currency, CompletableFuture<Double>> keyPrices = new LinkedHashMap<>();
+        casesByCurrency.forEach((currency, caseNames) -> {
+            casePrices.put(currency, priceService.getCasePrices(caseNames, currency));
+            keyPrices.put(currency, priceService.getKeyPrice(currency));
+        });
+        List<CompletableFuture<?>> pending = new ArrayList<>(casePrices.values());
+        pending.addAll(keyPrices.values());
+        CompletableFuture.allOf(pending.toArray(CompletableFuture<?>[]::new))
+                .exceptionally(e -> null) // Chyby se vypíšou u jednotlivých dotazů
+                .join();
+
+        boolean allSucceeded = true;
+        for (Query query : batch) {
+            String error = query.error;
+            Case casePrice = null;
+            Double keyPrice = null;
+            if (error == null) {
+                Map<String, Case> prices = casePrices.get(query.currency).exceptionally(e -> Map.of()).join();
+                casePrice = prices.get(query.caseName);
+                keyPrice = keyPrices.get(query.currency).exceptionally(e -> null).join();
+                if (casePrice == null) {
+                    error = "case price unavailable";
+                } else if (keyPrice == null) {
+                    error = "no exchange rate for " + query.currency;
+                }
+            }
+            if (error != null) {
+                allSucceeded = false;
+                writeRow(query.amountText, query.currencyText, query.caseName, "", "", "", "", error);
+                continue;
+            }
+            BundleResult result;
+            try {
+                result = BundleCalculator.calculate(query.amountMinor,
+                        BundleCalculator.toMinorUnits(casePrice.getPrice()), BundleCalculator.toMinorUnits(keyPrice));
+            } catch (IllegalArgumentException e) {
+                allSucceeded = false;
+                writeRow(query.amountText, query.currencyText, query.caseName, "", "", "", "", "invalid bundle price");
+                continue;
+            }
+            writeRow(query.amountText, query.currency.getCode(), query.caseName, Long.toString(result.getBundles()),
+                    format(result.getRemainingMinor()), format(result.getCasePriceMinor()),
+                    format(result.getKeyPriceMinor()), "");
+        }
+        out.flush(); // Výsledky dávky hned k dispozici pro navazující proces
+        return allSucceeded;
+    }
+
+    private void writeRow(String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(csv(fields[i]));
+        }
+        out.write('\n');
+    }
+
+    private static String format(long amountMinor) {
+        return BundleCalculator.toDecimal(amountMinor).toPlainString();
+    }
+
+    private static String csv(String field) {
+        if (field.indexOf(',') < 0 && field.indexOf('"') < 0 && field.indexOf('\n') < 0) {
+            return field;
+        }
+        return '"' + field.replace("\"", "\"\"") + '"';
+    }
+
+    /**
+     * Jeden dotaz ze vstupu. Pokud řádek nelze přečíst, dotaz nese chybu a
+     * vypíše se jako chybový řádek na svém místě.
+     */
+    private static final class Query {
+        private final String amountText;
+        private final String currencyText;
+        private final String caseName;
+        private final long amountMinor;
+        private final Currency currency;
+        private final String error;
+
+        private Query(String amountText, String currencyText, String caseName, long amountMinor, Currency currency,
+                String error) {
+            this.amountText = amountText;
+            this.currencyText = currencyText;
+            this.caseName = caseName;
+            this.amountMinor = amountMinor;
+            this.currency = currency;
+            this.error = error;
+        }
+
+        /**
+         * Přečte řádek vstupu.
+         *
+         * @param line       Řádek vstupu.
+         * @param currencies Vyhledá známou měnu podle kódu (null pro neznámý kód).
+         * @return Dotaz, nebo null pro prázdný řádek, komentář či hlavičku.
+         */
+        static Query parse(String line, Function<String, Currency> currencies) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                return null;
+            }
+            char delimiter = trimmed.indexOf(';') >= 0 ? ';' : ',';
+            int first = trimmed.indexOf(delimiter);
+            int second = first < 0 ? -1 : trimmed.indexOf(delimiter, first + 1);
+            if (second < 0) {
+                return new Query(trimmed, "", "", 0, null, "expected amount,currency,case");
+            }
+            String amountText = trimmed.substring(0, first).strip();
+            String currencyText = trimmed.substring(first + 1, second).strip();
+            String caseName = unquote(trimmed.substring(second + 1).strip()); // Zbytek řádku, název smí obsahovat oddělovač
+            if (amountText.equalsIgnoreCase("amount")) {
+                return null; // Hlavička
+            }
+
+            long amountMinor;
+            try {
+                amountMinor = BundleCalculator.parseMinorUnits(amountText); // Přijímá i desetinnou čárku
+            } catch (NumberFormatException e) {
+                return new Query(amountText, currencyText, caseName, 0, null, "invalid amount");
+            }
+            if (amountMinor < 0) {
+                return new Query(amountText, currencyText, caseName, 0, null, "invalid amount");
+            }
+            if (caseName.isEmpty()) {
+                return new Query(amountText, currencyText, caseName, 0, null, "missing case name");
+            }
+            Currency currency = currencies.apply(currencyText); // Neznámé kódy se neregistrují
+            if (currency == null) {
+                return new Query(amountText, currencyText, caseName, 0, null, "invalid currency");
+            }
+            return new Query(amountText, currencyText, caseName, amountMinor, currency, null);
+        }
+
+        private static String unquote(String field) {
+            if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+                return field.substring(1, field.length() - 1).replace("\"\"", "\"");
+            }
+            return field;
+        }
+    }
+}
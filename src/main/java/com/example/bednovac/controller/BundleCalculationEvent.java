@@ -0,0 +1,57 @@
+package com.example.bednovac.controller;
+
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.service.BundleCalculator;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR událost výpočtu balíčků v hlavním okně: od spuštění výpočtu (kliknutí,
+ * živý přepočet, obnova ceny) po zobrazení výsledku na FX vlákně.
+ */
+@Name("bednovac.BundleCalculation")
+@Label("Bundle Calculation")
+@Category({ "Bednovac", "UI" })
+@Description("End-to-end latency of a calculation in the main window, until the result is shown")
+@StackTrace(false)
+final class BundleCalculationEvent extends Event {
+
+    static final String OK = "OK";
+    static final String UNAVAILABLE = "UNAVAILABLE"; // Cena bedny nebo kurz nejsou dostupné
+    static final String ERROR = "ERROR";
+    static final String SUPERSEDED = "SUPERSEDED"; // Nahrazen novějším výpočtem, výsledek se nezobrazil
+
+    @Label("Case")
+    String caseName;
+
+    @Label("Currency")
+    String currency;
+
+    @Label("Amount")
+    String amount;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Bundles")
+    long bundles;
+
+    /**
+     * Ukončí měření a zapíše událost, pokud je zapnutá a překročí práh.
+     */
+    void complete(String caseName, Currency currency, long amountMinor, String outcome, long bundles) {
+        end();
+        if (shouldCommit()) {
+            this.caseName = caseName;
+            this.currency = currency.getCode();
+            this.amount = BundleCalculator.toDecimal(amountMinor).toPlainString();
+            this.outcome = outcome;
+            this.bundles = bundles;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.bednovac.controller;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.model.Exchange;
+import com.example.bednovac.service.BundleCalculator;
+import com.example.bednovac.service.BundleResult;
+import com.example.bednovac.service.PriceService;
+import com.example.bednovac.service.PriceTrend;
+import com.example.bednovac.service.PriceTrendAnalyzer;
+import com.example.bednovac.service.PriceUpdateListener;
+import javafx.collections.FXCollections;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.math.BigDecimal;
+import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Controller srovnávacího okna: tabulka všech sledovaných beden s cenou,
+ * počtem balíčků, zbytkem a trendem pro zadanou částku.
+ * <p>
+ * Ceny přicházejí z {@link PriceService} z vláken na pozadí. Posluchač si
+ * jen poznamená nejnovější cenu každé bedny; řádky se aktualizují nejvýše
+ * jednou za snímek přes {@link FxUpdateDispatcher}, takže ani obnova stovek
+ * beden nezahltí frontu FX vlákna voláními {@code Platform.runLater}.
+ */
+public class ComparisonController implements Initializable, PriceUpdateListener {
+
+    @FXML
+    private Label summaryLabel;
+
+    @FXML
+    private TableView<ComparisonRow> comparisonTable;
+
+    @FXML
+    private TableColumn<ComparisonRow, String> caseColumn;
+
+    @FXML
+    private TableColumn<ComparisonRow, BigDecimal> priceColumn;
+
+    @FXML
+    private TableColumn<ComparisonRow, Number> bundlesColumn;
+
+    @FXML
+    private TableColumn<ComparisonRow, BigDecimal> remainingColumn;
+
+    @FXML
+    private TableColumn<ComparisonRow, String> trendColumn;
+
+    // Nejnovější ceny z vláken na pozadí, čekající na další snímek
+    private final Map<String, Case> pendingPrices = new ConcurrentHashMap<>();
+    private final AtomicBoolean recalculateAll = new AtomicBoolean();
+
+    // Stav používaný jen na FX vlákně
+    private final Map<String, ComparisonRow> rowsByName = new LinkedHashMap<>();
+    private final Map<String, Case> latestPrices = new HashMap<>();
+    private long amountMinor;
+
+    private PriceService priceService;
+    private FxUpdateDispatcher uiUpdates;
+    private PriceTrendAnalyzer trendAnalyzer;
+    private Set<String> trackedNames = Set.of();
+    private volatile Currency currency;
+    private volatile Exchange exchange;
+
+    @Override
+    public void initialize(URL url, ResourceBundle resources) {
+        caseColumn.setCellValueFactory(data -> data.getValue().caseNameProperty());
+        priceColumn.setCellValueFactory(data -> data.getValue().priceProperty());
+        bundlesColumn.setCellValueFactory(data -> data.getValue().bundlesProperty());
+        remainingColumn.setCellValueFactory(data -> data.getValue().remainingProperty());
+        trendColumn.setCellValueFactory(data -> data.getValue().trendProperty());
+        comparisonTable.setPlaceholder(new Label("Žádné bedny."));
+    }
+
+    /**
+     * Naplní tabulku a začne sledovat ceny. Musí být volána na FX threadu.
+     *
+     * @param priceService  Služba cen.
+     * @param trendAnalyzer Zdroj trendových ukazatelů.
+     * @param uiUpdates     Sdílený dispatcher aktualizací UI.
+     * @param caseNames     Bedny, které se mají porovnat.
+     * @param amountMinor   Částka v setinách měny.
+     * @param currency      Měna částky.
+     */
+    public void start(PriceService priceService, PriceTrendAnalyzer trendAnalyzer, FxUpdateDispatcher uiUpdates,
+            Collection<String> caseNames, long amountMinor, Currency currency) {
+        this.priceService = priceService;
+        this.trendAnalyzer = trendAnalyzer;
+        this.uiUpdates = uiUpdates;
+        for (String caseName : caseNames) {
+            rowsByName.put(caseName, new ComparisonRow(caseName));
+        }
+        trackedNames = Set.copyOf(rowsByName.keySet());
+        comparisonTable.setItems(FXCollections.observableArrayList(rowsByName.values()));
+
+        priceService.addPriceUpdateListener(this);
+        priceService.getExchange().thenAccept(loaded -> {
+            if (loaded != null) {
+                exchange = loaded;
+                recalculateAll.set(true);
+                scheduleFlush();
+            }
+        });
+        setBudget(amountMinor, currency);
+    }
+
+    /**
+     * Změní porovnávanou částku či měnu. Ceny v nové měně se načtou z cache
+     * (případně z API). Musí být volána na FX threadu.
+     *
+     * @param amountMinor Částka v setinách měny.
+     * @param currency    Měna částky.
+     */
+    public void setBudget(long amountMinor, Currency currency) {
+        this.amountMinor = amountMinor;
+        summaryLabel.setText(String.format("Částka: %s %s", BundleCalculator.toDecimal(amountMinor),
+                currency.getCode()));
+        if (currency != this.currency) {
+            this.currency = currency;
+            latestPrices.clear();
+            pendingPrices.clear();
+            priceService.getCasePrices(trackedNames, currency).thenAccept(prices -> {
+                if (this.currency != currency) {
+                    return; // Měna se mezitím znovu změnila
+                }
+                for (Case caseData : prices.values()) {
+                    pendingPrices.put(caseData.getName(), caseData);
+                }
+                scheduleFlush();
+            });
+        }
+        recalculateAll.set(true);
+        scheduleFlush();
+    }
+
+    /**
+     * Přestane sledovat ceny. Volá se při zavření okna.
+     */
+    public void dispose() {
+        pendingPrices.clear();
+        if (priceService != null) {
+            priceService.removePriceUpdateListener(this);
+        }
+    }
+
+    @Override
+    public void onCasePriceUpdated(Case previous, Case current, boolean changed) {
+        Currency selected = currency;
+        if (selected != null && trackedNames.contains(current.getName())
+                && (current.getCurrency() == selected
+                        || current.getCurrency() == priceService.getPricingCurrency(selected))) {
+            pendingPrices.put(current.getName(), current); // Starší nezpracovaná cena se přepíše
+            scheduleFlush();
+        }
+    }
+
+    @Override
+    public void onExchangeUpdated(Exchange previous, Exchange current, boolean changed) {
+        exchange = current;
+        recalculateAll.set(true); // Kurz ovlivní cenu klíče i převedené ceny všech beden
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        uiUpdates.submit(this, "rows", this::flush); // Víc změn během snímku = jeden průchod tabulkou
+    }
+
+    /**
+     * Promítne nashromážděné změny do tabulky. Volá se na FX vlákně nejvýše
+     * jednou za snímek.
+     */
+    private void flush() {
+        boolean all = recalculateAll.getAndSet(false);
+        if (pendingPrices.isEmpty() && !all) {
+            return;
+        }
+        Double keyPrice = keyPrice();
+        for (String caseName : pendingPrices.keySet()) {
+            Case caseData = pendingPrices.remove(caseName);
+            if (caseData != null) {
+                latestPrices.put(caseName, caseData);
+                if (!all) {
+                    updateRow(rowsByName.get(caseName), keyPrice);
+                }
+            }
+        }
+        if (all) {
+            for (ComparisonRow row : rowsByName.values()) {
+                updateRow(row, keyPrice);
+            }
+        }
+    }
+
+    private void updateRow(ComparisonRow row, Double keyPrice) {
+        Double price = displayPrice(latestPrices.get(row.getCaseName()));
+        if (price == null) {
+            row.priceProperty().set(null);
+            row.remainingProperty().set(null);
+            row.bundlesProperty().set(0);
+        } else {
+            long priceMinor = BundleCalculator.toMinorUnits(price);
+            row.priceProperty().set(BundleCalculator.toDecimal(priceMinor));
+            if (keyPrice != null && priceMinor + BundleCalculator.toMinorUnits(keyPrice) > 0) {
+                BundleResult result = BundleCalculator.calculate(amountMinor, priceMinor,
+                        BundleCalculator.toMinorUnits(keyPrice));
+                row.bundlesProperty().set(result.getBundles());
+                row.remainingProperty().set(BundleCalculator.toDecimal(result.getRemainingMinor()));
+            } else {
+                row.bundlesProperty().set(0);
+                row.remainingProperty().set(null);
+            }
+        }
+        row.trendProperty().set(formatTrend(
+                trendAnalyzer.getTrend(row.getCaseName(), priceService.getPricingCurrency(currency))));
+    }
+
+    /**
+     * Cena bedny ve zvolené měně; ceny v jiné měně (USD pro měny, které Steam
+     * nepodporuje) se převedou posledními známými kurzy.
+     */
+    private Double displayPrice(Case caseData) {
+        if (caseData == null) {
+            return null;
+        }
+        if (caseData.getCurrency() == currency) {
+            return caseData.getPrice();
+        }
+        Exchange rates = exchange;
+        if (rates == null || !rates.hasRate(caseData.getCurrency()) || !rates.hasRate(currency)) {
+            return null;
+        }
+        return rates.convert(caseData.getPrice(), caseData.getCurrency(), currency);
+    }
+
+    private Double keyPrice() {
+        if (currency == Currency.USD) {
+            return priceService.keyPrice();
+        }
+        Exchange rates = exchange;
+        return rates != null && rates.hasRate(currency) ? rates.convert(priceService.keyPrice(), Currency.USD,
+                currency) : null;
+    }
+
+    private static String formatTrend(PriceTrend trend) {
+        if (trend == null || trend.getLongAverage() <= 0) {
+            return "";
+        }
+        double change = (trend.getShortAverage() / trend.getLongAverage() - 1) * 100;
+        return String.format("%+.1f %%%s", change, trend.isBuySignal() ? " – levná" : "");
+    }
+}
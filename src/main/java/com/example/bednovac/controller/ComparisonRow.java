@@ -0,0 +1,65 @@
+package com.example.bednovac.controller;
+
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.ObjectProperty;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleObjectProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+import java.math.BigDecimal;
+
+/**
+ * Řádek srovnávací tabulky: jedna bedna a výsledek výpočtu pro zadanou
+ * částku. Řádky se při obnově ceny nemění za nové, jen se aktualizují jejich
+ * vlastnosti, takže tabulka překreslí pouze dotčené buňky.
+ */
+public final class ComparisonRow {
+    private final ReadOnlyStringWrapper caseName;
+    private final ObjectProperty<BigDecimal> price = new SimpleObjectProperty<>(this, "price");
+    private final LongProperty bundles = new SimpleLongProperty(this, "bundles");
+    private final ObjectProperty<BigDecimal> remaining = new SimpleObjectProperty<>(this, "remaining");
+    private final StringProperty trend = new SimpleStringProperty(this, "trend", "");
+
+    ComparisonRow(String caseName) {
+        this.caseName = new ReadOnlyStringWrapper(this, "caseName", caseName);
+    }
+
+    public String getCaseName() {
+        return caseName.get();
+    }
+
+    public ReadOnlyStringProperty caseNameProperty() {
+        return caseName.getReadOnlyProperty();
+    }
+
+    /**
+     * @return Cena bedny ve zvolené měně, nebo null, pokud ještě není známá.
+     */
+    public ObjectProperty<BigDecimal> priceProperty() {
+        return price;
+    }
+
+    /**
+     * @return Počet balíčků (bedna + klíč), které lze za částku koupit.
+     */
+    public LongProperty bundlesProperty() {
+        return bundles;
+    }
+
+    /**
+     * @return Částka, která po nákupu balíčků zbude, nebo null bez ceny.
+     */
+    public ObjectProperty<BigDecimal> remainingProperty() {
+        return remaining;
+    }
+
+    /**
+     * @return Popis trendu ceny (krátký vs. dlouhý klouzavý průměr).
+     */
+    public StringProperty trendProperty() {
+        return trend;
+    }
+}
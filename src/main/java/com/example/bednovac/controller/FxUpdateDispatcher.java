@@ -0,0 +1,143 @@
+package com.example.bednovac.controller;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.control.Labeled;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Plánovač aktualizací UI z vláken na pozadí.
+ * <p>
+ * Místo {@code Platform.runLater} pro každou změnu si pamatuje jen poslední
+ * čekající aktualizaci pro každý cíl (např. text konkrétního labelu) a
+ * všechny je provede najednou v jednom pulsu {@link AnimationTimer}. Časovač
+ * běží jen tehdy, když něco čeká, takže nečinná aplikace nevynucuje
+ * překreslování každého snímku. Aktualizace zadané přímo na FX vlákně se
+ * provedou okamžitě a zruší starší čekající hodnotu stejného cíle.
+ */
+public class FxUpdateDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FxUpdateDispatcher.class);
+
+    private final Map<Target, Runnable> pending = new ConcurrentHashMap<>();
+    private final AtomicBoolean armed = new AtomicBoolean();
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+
+    /**
+     * Naplánuje aktualizaci cíle. Starší dosud neprovedená aktualizace téhož
+     * cíle se zahodí.
+     *
+     * @param target Objekt, kterého se aktualizace týká.
+     * @param slot   Rozlišení více nezávislých aktualizací jednoho objektu
+     *               (např. "text" a "disable").
+     * @param update Aktualizace, která se provede na FX vlákně.
+     */
+    public void submit(Object target, String slot, Runnable update) {
+        Target key = new Target(target, slot);
+        if (Platform.isFxApplicationThread()) {
+            pending.remove(key);
+            update.run();
+            return;
+        }
+        pending.put(key, update);
+        if (armed.compareAndSet(false, true)) {
+            Platform.runLater(timer::start); // Jedno runLater na dávku změn, ne na každou změnu
+        }
+    }
+
+    /**
+     * Nastaví text labelu nebo tlačítka.
+     */
+    public void setText(Labeled labeled, String text) {
+        submit(labeled, "text", () -> labeled.setText(text));
+    }
+
+    /**
+     * Zakáže nebo povolí prvek.
+     */
+    public void setDisable(Node node, boolean disable) {
+        submit(node, "disable", () -> node.setDisable(disable));
+    }
+
+    /**
+     * @return Počet aktualizací čekajících na příští puls.
+     */
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Zahodí čekající aktualizace a zastaví časovač. Volá se při zavírání
+     * aplikace.
+     */
+    public void dispose() {
+        pending.clear();
+        timer.stop();
+    }
+
+    /**
+     * Provede všechny čekající aktualizace. Volá se na FX vlákně jednou za
+     * puls; když nic dalšího nečeká, časovač se zastaví.
+     */
+    private void flush() {
+        for (Target key : pending.keySet()) {
+            Runnable update = pending.remove(key);
+            if (update != null) {
+                try {
+                    update.run();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("UI update failed: {}", key, e);
+                }
+            }
+        }
+        timer.stop();
+        armed.set(false);
+        if (!pending.isEmpty() && armed.compareAndSet(false, true)) {
+            timer.start(); // Během flush přibyla další změna
+        }
+    }
+
+    /**
+     * Cíl aktualizace: objekt (podle identity) a jeho konkrétní vlastnost.
+     */
+    private static final class Target {
+        private final Object target;
+        private final String slot;
+
+        Target(Object target, String slot) {
+            this.target = target;
+            this.slot = slot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Target))
+                return false;
+            Target other = (Target) o;
+            return target == other.target && slot.equals(other.slot);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(target) + slot.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return target.getClass().getSimpleName() + '.' + slot;
+        }
+    }
+}
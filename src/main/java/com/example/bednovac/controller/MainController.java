@@ -1,21 +1,45 @@
 package com.example.bednovac.controller;
 
-import com.example.bednovac.service.ApiClient;
+import com.example.bednovac.service.AppServices;
+import com.example.bednovac.service.BudgetOptimizer;
+import com.example.bednovac.service.BudgetPlan;
+import com.example.bednovac.service.BundleCalculator;
+import com.example.bednovac.service.BundleResult;
+import com.example.bednovac.service.PriceHistoryStore;
+import com.example.bednovac.service.PriceRefreshScheduler;
 import com.example.bednovac.service.PriceService;
+import com.example.bednovac.service.PriceTrend;
+import com.example.bednovac.service.PriceTrendAnalyzer;
+import com.example.bednovac.service.PriceUpdateListener;
+import com.example.bednovac.server.PricingServer;
+import com.example.bednovac.metrics.LatencyHistogram;
+import com.example.bednovac.metrics.MetricsRegistry;
 import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Exchange;
 import com.example.bednovac.model.Currency;
+import com.example.bednovac.util.Constants;
+import javafx.animation.PauseTransition;
 import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.Scene;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
 import javafx.scene.control.ChoiceBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
-import javafx.application.Platform;
+import javafx.stage.Stage;
+import javafx.util.Duration;
+import javafx.util.StringConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.ResourceBundle;
-import java.util.logging.Logger;
-import java.util.logging.Level;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -23,10 +47,13 @@ import java.util.concurrent.CompletableFuture;
  * uživatelským rozhraním.
  * Tato třída implementuje Initializable pro inicializaci komponent po načtení
  * FXML souboru.
+ * <p>
+ * Služby (cena, historie, trendy) dostává připravené od aplikace
+ * ({@link AppServices}); vytvářejí se na pozadí souběžně s načítáním FXML.
  */
 public class MainController implements Initializable {
 
-    private static final Logger LOGGER = Logger.getLogger(ApiClient.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(MainController.class);
 
     @FXML
     private Button exchangeButton;
@@ -37,6 +64,12 @@ public class MainController implements Initializable {
     @FXML
     private Button resetButton;
 
+    @FXML
+    private Button optimizeButton;
+
+    @FXML
+    private Button compareButton;
+
     @FXML
     private Label moneyLabel;
 
@@ -46,18 +79,80 @@ public class MainController implements Initializable {
     @FXML
     private Label casesLabel;
 
+    @FXML
+    private Label trendLabel;
+
     @FXML
     private ChoiceBox<Currency> currencyChoiceBox;
 
     @FXML
     private ChoiceBox<String> caseChoiceBox;
 
+    // Služby připravované na pozadí při startu, k dispozici od initialize
+    private final CompletableFuture<AppServices> preparedServices;
+
+    private AppServices services;
+
     private PriceService priceService;
 
+    private PriceRefreshScheduler refreshScheduler;
+
+    private PriceHistoryStore historyStore;
+
+    private PricingServer pricingServer;
+
+    private PriceTrendAnalyzer trendAnalyzer;
+
+    private final BudgetOptimizer budgetOptimizer = new BudgetOptimizer();
+
+    private BundleCalculator bundleCalculator;
+
+    // Všechny změny UI z vláken na pozadí jdou přes dispatcher (max. jednou za snímek)
+    private final FxUpdateDispatcher uiUpdates = new FxUpdateDispatcher();
+
+    // Srovnávací okno, pokud je otevřené
+    private Stage comparisonStage;
+    private ComparisonController comparisonController;
+
+    // Živý přepočet: výpočet se spustí až chvíli po poslední změně vstupu
+    private final PauseTransition liveRecalculation = new PauseTransition(
+            Duration.millis(Constants.LIVE_RECALCULATION_DEBOUNCE_MS));
+
+    // Jen poslední spuštěný výpočet smí zobrazit výsledek (zapisuje jen FX vlákno)
+    private volatile long calculationGeneration;
+    private CompletableFuture<BundleResult> runningCalculation;
+
+    // Doba od spuštění výpočtu (kliknutí, živý přepočet) po zobrazení výsledku na FX vlákně
+    private final LatencyHistogram calculationLatency = MetricsRegistry.getDefault().latency("ui.calculation");
+
+    // Vstupy posledního výpočtu - při změně ceny na pozadí se výsledek přepočítá
+    private volatile long lastAmountMinor;
+    private volatile Currency lastCurrency;
+    private volatile String lastCase;
+
+    /**
+     * Konstruktor pro FXMLLoader bez továrny controllerů: služby si připraví
+     * sám.
+     */
+    public MainController() {
+        this(AppServices.prepareAsync(Constants.TRACKED_CASES.get(0), Currency.USD));
+    }
+
+    /**
+     * Konstruktor se službami připravovanými aplikací při startu.
+     *
+     * @param preparedServices Služby; controller na ně počká až v
+     *                         {@link #initialize(URL, ResourceBundle)}.
+     */
+    public MainController(CompletableFuture<AppServices> preparedServices) {
+        this.preparedServices = preparedServices;
+    }
+
     /**
      * Inicializace controlleru. Tato metoda bude volána automaticky po načtení FXML
      * souboru.
-     * Nastavuje výchozí hodnoty pro výběr měny a beden a inicializuje služby.
+     * Nastavuje výchozí hodnoty pro výběr měny a beden a převezme připravené
+     * služby.
      *
      * @param url       Umístění kořenového objektu.
      * @param resources Zdroje použité pro lokalizaci kořenového objektu.
@@ -65,54 +160,164 @@ public class MainController implements Initializable {
     @Override
     public void initialize(URL url, ResourceBundle resources) {
         LOGGER.info("Initializing MainController...");
-        currencyChoiceBox.getItems().addAll(Currency.values());
+        currencyChoiceBox.getItems().addAll(Currency.values()); // Výchozí měny, úplný seznam doplní loadInitialData
+        currencyChoiceBox.setConverter(new StringConverter<>() {
+            @Override
+            public String toString(Currency currency) {
+                return currency == null ? "" : currency.getCode() + " – " + currency.getFullName();
+            }
+
+            @Override
+            public Currency fromString(String text) {
+                return Currency.fromString(text.substring(0, 3));
+            }
+        });
         currencyChoiceBox.getSelectionModel().select(Currency.USD); // Nastaví výchozí měnu na USD
         currencyChoiceBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null) {
-                LOGGER.info("Selected currency: " + newValue);
+                LOGGER.debug("Selected currency: {}", newValue);
+                if (refreshScheduler != null) {
+                    refreshScheduler.setCurrency(newValue); // Udržovat čerstvé ceny ve zvolené měně
+                }
+                updateTrendLabel();
+                liveRecalculation.playFromStart();
             }
         });
-        LOGGER.info("Currency ChoiceBox initialized with items: " + currencyChoiceBox.getItems());
+        LOGGER.debug("Currency ChoiceBox initialized with items: {}", currencyChoiceBox.getItems());
 
         // Naplnění ChoiceBoxu s bednami
-        caseChoiceBox.getItems().addAll(
-                "Kilowatt Case",
-                "Revolution Case",
-                "Spectrum Case",
-                "Danger Zone Case",
-                "Prisma 2 Case",
-                "Prisma Case",
-                "Chroma 3 Case",
-                "Chroma 2 Case",
-                "Chroma Case",
-                "Falchion Case",
-                "Horizon Case",
-                "Gamma 2 Case",
-                "Gamma Case",
-                "Glove Case",
-                "Operation Hydra Case");
+        caseChoiceBox.getItems().addAll(Constants.TRACKED_CASES);
         caseChoiceBox.getSelectionModel().selectFirst(); // Nastaví výchozí bednu
         caseChoiceBox.getSelectionModel().selectedItemProperty().addListener((observable, oldValue, newValue) -> {
             if (newValue != null) {
-                LOGGER.info("Selected case: " + newValue);
+                LOGGER.debug("Selected case: {}", newValue);
+                if (refreshScheduler != null) {
+                    refreshScheduler.recordSelection(newValue);
+                }
+                updateTrendLabel();
+                liveRecalculation.playFromStart();
             }
         });
-        LOGGER.info("Case ChoiceBox initialized with items: " + caseChoiceBox.getItems());
-        casesLabel.setText("0 Cases");
-        keysLabel.setText("0 Keys");
-        moneyLabel.setText("0 USD");
+        amountTextField.textProperty().addListener((observable, oldValue, newValue) -> liveRecalculation.playFromStart());
+        liveRecalculation.setOnFinished(event -> recalculateLive());
+        LOGGER.debug("Case ChoiceBox initialized with items: {}", caseChoiceBox.getItems());
+        uiUpdates.setText(casesLabel, "0 Cases");
+        uiUpdates.setText(keysLabel, "0 Keys");
+        uiUpdates.setText(moneyLabel, "0 USD");
+
+        services = preparedServices.join(); // Obvykle už hotové - vytvářely se během parsování FXML
+        priceService = services.getPriceService();
+        bundleCalculator = services.getBundleCalculator();
+        trendAnalyzer = services.getTrendAnalyzer(); // Registrovaný jako posluchač už před posluchačem UI
+        historyStore = services.getHistoryStore();
+        priceService.addPriceUpdateListener(new PriceUpdateListener() {
+            @Override
+            public void onCasePriceUpdated(Case previous, Case current, boolean changed) {
+                // Label se přepočítá z nejnovějšího trendu, vlna obnov tak skončí jedním překreslením
+                uiUpdates.submit(trendLabel, "trend", () -> {
+                    if (current.getName().equals(caseChoiceBox.getValue())) {
+                        updateTrendLabel();
+                    }
+                });
+                Currency currency = lastCurrency;
+                if (changed && current.getName().equals(lastCase) && currency != null
+                        && current.getCurrency() == priceService.getPricingCurrency(currency)) {
+                    uiUpdates.submit(MainController.this, "recalculate", MainController.this::recalculateLastResult);
+                }
+            }
 
-        ApiClient apiClient = new ApiClient();
-        this.priceService = new PriceService(apiClient);
+            @Override
+            public void onExchangeUpdated(Exchange previous, Exchange current, boolean changed) {
+                if (changed && lastCase != null) {
+                    uiUpdates.submit(MainController.this, "recalculate", MainController.this::recalculateLastResult);
+                }
+            }
+        });
         loadInitialData();
+        // Cena výchozí bedny se stahuje od startu; zobrazí se hned, jak je (případně ještě před zobrazením okna)
+        services.getPrefetch().thenRun(() -> uiUpdates.submit(trendLabel, "trend", this::updateTrendLabel));
     }
 
     /**
      * Načte úvodní data.
-     * (Zatím prázdná metoda, připravena pro budoucí rozšíření).
+     * Doplní výběr měn podle seznamu z API a spustí plánovač, který na pozadí
+     * zahřeje a průběžně obnovuje ceny všech sledovaných beden a směnné kurzy.
      */
     public void loadInitialData() {
+        priceService.getCurrencies().thenAccept(currencies -> uiUpdates.submit(currencyChoiceBox, "items", () -> {
+            Currency selected = currencyChoiceBox.getValue();
+            currencyChoiceBox.getItems().setAll(currencies);
+            currencyChoiceBox.getSelectionModel().select(selected != null ? selected : Currency.USD);
+            LOGGER.info("Currency ChoiceBox updated with {} currencies.", currencies.size());
+        }));
+        refreshScheduler = new PriceRefreshScheduler(priceService, caseChoiceBox.getItems());
+        refreshScheduler.setCurrency(currencyChoiceBox.getValue());
+        refreshScheduler.start();
+        startPricingServer();
+    }
 
+    /**
+     * Spustí lokální HTTP server s cenami, pokud je zapnutý systémovou
+     * vlastností {@link Constants#PRICING_SERVER_PORT_PROPERTY}. Server sdílí
+     * cache s GUI.
+     */
+    private void startPricingServer() {
+        Integer port = Integer.getInteger(Constants.PRICING_SERVER_PORT_PROPERTY);
+        if (port == null) {
+            return;
+        }
+        try {
+            pricingServer = new PricingServer(priceService, port);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to start pricing server on port {}", port, e);
+        }
+    }
+
+    /**
+     * Zobrazí cenu a trendové ukazatele vybrané bedny ve zvolené měně. Cena
+     * se bere jen z cache a ukazatele jsou předpočítané, čtení tak neblokuje
+     * FX vlákno.
+     */
+    private void updateTrendLabel() {
+        String selectedCase = caseChoiceBox.getValue();
+        Currency selectedCurrency = currencyChoiceBox.getValue();
+        if (selectedCase == null || selectedCurrency == null || priceService == null) {
+            return;
+        }
+        StringBuilder text = new StringBuilder();
+        CompletableFuture<Case> price = priceService.getCasePrice(selectedCase, selectedCurrency);
+        Case caseData = price.isDone() && !price.isCompletedExceptionally() ? price.getNow(null) : null;
+        if (caseData != null) {
+            text.append(String.format("Cena: %s %s", BundleCalculator.toDecimal(
+                    BundleCalculator.toMinorUnits(caseData.getPrice())), caseData.getCurrency().getCode()));
+        }
+        PriceTrend trend = trendAnalyzer.getTrend(selectedCase,
+                priceService.getPricingCurrency(selectedCurrency));
+        if (trend != null) {
+            text.append(text.isEmpty() ? "" : "\n").append(String.format("Průměr: %.2f %s\nVolatilita: %.1f %%%s",
+                    trend.getLongAverage(), trend.getCurrency().getCode(), trend.getVolatility() * 100,
+                    trend.isBuySignal() ? "\nTeď je levná!" : ""));
+        }
+        uiUpdates.setText(trendLabel, text.toString());
+    }
+
+    /**
+     * Ukončí služby běžící na pozadí. Volá se při zavírání aplikace.
+     */
+    public void shutdown() {
+        uiUpdates.dispose();
+        if (comparisonController != null) {
+            comparisonController.dispose();
+        }
+        if (pricingServer != null) {
+            pricingServer.close();
+        }
+        if (refreshScheduler != null) {
+            refreshScheduler.stop();
+        }
+        if (services != null) {
+            services.close(); // Uloží historii a čekající změny cache na disk
+        }
     }
 
     /**
@@ -128,143 +333,298 @@ public class MainController implements Initializable {
      */
     @FXML
     public void handleExchangeButtonClick() {
-        exchangeButton.setDisable(true); // Zabrání opakovanému kliknutí během zpracování
-        LOGGER.info("Exchange button clicked.");
+        uiUpdates.setDisable(exchangeButton, true); // Zabrání opakovanému kliknutí během zpracování
+        LOGGER.debug("Exchange button clicked.");
 
-        // 1. Získání částky z textového pole
-        String amountText = amountTextField.getText().replace(",", ".").replace(" ", ""); // Nahraď čárku tečkou a
-                                                                                          // odstraň mezery
+        // 1. Získání částky z textového pole (přesně, v setinách měny)
+        String amountText = amountTextField.getText().strip();
         if (amountText.isEmpty()) {
-            Platform.runLater(() -> { // Aktualizace UI musí proběhnout na FX threadu
-                moneyLabel.setText("Zadejte částku.");
-                exchangeButton.setDisable(false);
-            });
+            showExchangeError("Zadejte částku.");
             return;
         }
 
-        double amount;
+        long amountMinor;
         try {
-            amount = Double.parseDouble(amountText);
+            amountMinor = BundleCalculator.parseMinorUnits(amountText);
         } catch (NumberFormatException e) {
-            Platform.runLater(() -> {
-                moneyLabel.setText("Neplatný formát částky.");
-                exchangeButton.setDisable(false);
-            });
-            LOGGER.log(Level.WARNING, "Invalid amount entered: " + amountText, e);
+            showExchangeError("Neplatný formát částky.");
+            LOGGER.warn("Invalid amount entered: {}", amountText, e);
+            return;
+        }
+        if (amountMinor < 0) {
+            showExchangeError("Částka nesmí být záporná.");
             return;
         }
 
         Currency selectedCurrency = currencyChoiceBox.getValue();
         if (selectedCurrency == null) {
-            Platform.runLater(() -> {
-                moneyLabel.setText("Vyberte měnu.");
-                exchangeButton.setDisable(false);
-            });
+            showExchangeError("Vyberte měnu.");
             return;
         }
 
         String selectedCase = caseChoiceBox.getValue();
         if (selectedCase == null || selectedCase.isEmpty()) {
-            Platform.runLater(() -> {
-                moneyLabel.setText("Vyberte bednu.");
-                exchangeButton.setDisable(false);
-            });
+            showExchangeError("Vyberte bednu.");
             return;
         }
 
-        LOGGER.info("Starting calculation for amount: " + amount + " " + selectedCurrency.name() + " for case: "
-                + selectedCase);
+        lastAmountMinor = amountMinor;
+        lastCurrency = selectedCurrency;
+        lastCase = selectedCase;
+        if (comparisonController != null) {
+            comparisonController.setBudget(amountMinor, selectedCurrency); // Srovnání sleduje zadanou částku
+        }
+        calculate(amountMinor, selectedCurrency, selectedCase);
+    }
 
-        // 2. Asynchronní získání cen bedny a směnných kurzů
-        CompletableFuture<Double> casePriceFuture = priceService.getCasePrice(selectedCase)
-                .thenApply(caseData -> {
-                    if (caseData != null) {
-                        return caseData.getPrice(); // Cena bedny v USD
-                    } else {
-                        LOGGER.warning("Failed to fetch case price for: " + selectedCase);
-                        return null;
-                    }
-                });
+    /**
+     * Metoda pro zpracování události kliknutí na tlačítko "Optimize"
+     * (optimizeButton).
+     * Z aktuálních cen všech sledovaných beden najde kombinaci balíčků
+     * (bedna + klíč), která z rozpočtu utratí co nejvíc.
+     */
+    @FXML
+    public void handleOptimizeButtonClick() {
+        LOGGER.debug("Optimize button clicked.");
+        String amountText = amountTextField.getText().strip();
+        long budgetCents;
+        try {
+            budgetCents = BundleCalculator.parseMinorUnits(amountText);
+        } catch (NumberFormatException e) {
+            uiUpdates.setText(moneyLabel, amountText.isEmpty() ? "Zadejte částku." : "Neplatný formát částky.");
+            return;
+        }
+        Currency selectedCurrency = currencyChoiceBox.getValue();
+        if (selectedCurrency == null) {
+            uiUpdates.setText(moneyLabel, "Vyberte měnu.");
+            return;
+        }
+        if (budgetCents < 0) {
+            uiUpdates.setText(moneyLabel, "Částka nesmí být záporná.");
+            return;
+        }
 
-        CompletableFuture<Double> exchangeRateFuture = priceService.getExchange()
-                .thenApply(exchange -> {
-                    if (exchange != null) {
-                        return exchange.getRate(selectedCurrency); // Směnný kurz pro vybranou měnu
-                    } else {
-                        LOGGER.warning("Failed to fetch exchange rates.");
+        uiUpdates.setDisable(optimizeButton, true);
+        lastCase = null; // Výsledek optimalizace se po obnově cen nepřepočítává
+        priceService.getCasePrices(caseChoiceBox.getItems(), selectedCurrency)
+                .thenCombine(priceService.getKeyPrice(selectedCurrency), (prices, keyPrice) -> {
+                    if (keyPrice == null || prices.isEmpty()) {
                         return null;
                     }
-                });
-
-        // 3. Kombinace výsledků obou asynchronních volání a finální výpočet
-        CompletableFuture.allOf(casePriceFuture, exchangeRateFuture)
-                .thenAccept(v -> { // thenAccept je vhodné, když už nepotřebujeme vracet další CompletableFuture
-                    try {
-                        Double casePriceUsd = casePriceFuture.get(); // Získá cenu bedny
-                        Double exchangeRate = exchangeRateFuture.get(); // Získá směnný kurz
-
-                        if (casePriceUsd == null || exchangeRate == null || exchangeRate <= 0) {
-                            Platform.runLater(() -> moneyLabel.setText("Chyba při získávání dat (ceny/kurzu)."));
-                            return;
-                        }
-
-                        double keyPriceUsd = getPriceService().getKeyPrice(); // Získá cenu klíče (konstanta v USD)
-
-                        // VÝPOČET:
-                        // A. Převeď uživatelskou částku na USD
-                        // Předpoklad: exchangeRate vyjadřuje "Kolik jednotek měny je za 1 USD" (např.
-                        // 23.5 CZK = 1 USD)
-                        // Proto DĚLÍME zadanou částku kurzem, abychom dostali hodnotu v USD.
-                        double userAmountUsd = amount / exchangeRate;
-
-                        // B. Vypočítá celkovou cenu jednoho balíčku (bedna + klíč) v USD
-                        double totalBundleCostUsd = casePriceUsd + keyPriceUsd;
-
-                        if (totalBundleCostUsd <= 0) {
-                            Platform.runLater(() -> moneyLabel.setText("Cena bedny + klíče je neplatná."));
-                            return;
-                        }
-
-                        // C. Vypočítá, kolik celých balíčků si uživatel může koupit
-                        int numberOfBundles = (int) (userAmountUsd / totalBundleCostUsd);
-
-                        // D. Vypočítá zbytek peněz v USD
-                        double remainingUsd = userAmountUsd % totalBundleCostUsd;
-
-                        // E. Převod zbytku peněz zpět na původní měnu
-                        double remainingInSelectedCurrency = remainingUsd * exchangeRate; // NÁSOBÍME pro zpětný převod
-
-                        // F. Aktualizace UI (VŽDY musí běžet na JavaFX aplikačním threadu!)
-                        Platform.runLater(() -> {
-                            casesLabel.setText(String.format("Bedny: %d", numberOfBundles));
-                            keysLabel.setText(String.format("Klíče: %d", numberOfBundles)); // Stejný počet klíčů jako
-                                                                                            // beden
-                            // Zobrazíme zbytek peněz (volitelné, zatím není v UI dedikovaný label, případně
-                            // update moneyLabel)
-                            // moneyLabel.setText(String.format("Zbytek: %.2f %s",
-                            // remainingInSelectedCurrency, selectedCurrency.name()));
-
-                            exchangeButton.setDisable(false); // Znovu povolit tlačítko
-                        });
-
-                    } catch (Exception e) {
-                        LOGGER.log(Level.SEVERE, "Chyba při výpočtu v thenAccept: " + e.getMessage(), e);
-                        Platform.runLater(() -> {
-                            moneyLabel.setText("Nastala chyba při výpočtu.");
-                            exchangeButton.setDisable(false);
-                        });
+                    List<BudgetOptimizer.Item> items = new ArrayList<>();
+                    long keyPriceCents = BundleCalculator.toMinorUnits(keyPrice);
+                    for (Case caseData : prices.values()) {
+                        items.add(new BudgetOptimizer.Item(caseData.getName(),
+                                BundleCalculator.toMinorUnits(caseData.getPrice()) + keyPriceCents));
                     }
+                    return items;
                 })
-                .exceptionally(e -> { // Zachycení chyb z CompletableFuture.allOf
-                    LOGGER.log(Level.SEVERE, "Chyba při získávání API dat: " + e.getMessage(), e);
-                    Platform.runLater(() -> {
-                        moneyLabel.setText("Nepodařilo se získat data z API. Zkuste to znovu.");
-                        exchangeButton.setDisable(false);
-                    });
-                    return null; // Důležité, aby exceptionally něco vrátilo (Void)
+                // Výpočet mimo FX vlákno, i když jsou ceny už v cache
+                .thenApplyAsync(items -> items == null ? null
+                        : budgetOptimizer.optimize(items, budgetCents, BudgetOptimizer.Mode.SPEND))
+                .whenComplete((plan, e) -> {
+                    uiUpdates.setDisable(optimizeButton, false);
+                    if (e != null || plan == null) {
+                        LOGGER.warn("Budget optimization failed.", e);
+                        uiUpdates.setText(moneyLabel, "Chyba při získávání dat (ceny/kurzu).");
+                        return;
+                    }
+                    uiUpdates.submit(optimizeButton, "result", () -> showBudgetPlan(plan, selectedCurrency));
                 });
     }
 
+    /**
+     * Metoda pro zpracování události kliknutí na tlačítko "Compare"
+     * (compareButton).
+     * Otevře okno s tabulkou všech sledovaných beden pro zadanou částku, nebo
+     * přenese do popředí již otevřené okno.
+     */
+    @FXML
+    public void handleCompareButtonClick() {
+        long amountMinor;
+        try {
+            amountMinor = Math.max(0, BundleCalculator.parseMinorUnits(amountTextField.getText()));
+        } catch (NumberFormatException e) {
+            amountMinor = 0; // Bez platné částky tabulka ukáže jen ceny
+        }
+        Currency selectedCurrency = currencyChoiceBox.getValue() != null ? currencyChoiceBox.getValue()
+                : Currency.USD;
+        if (comparisonStage != null) {
+            comparisonController.setBudget(amountMinor, selectedCurrency);
+            comparisonStage.toFront();
+            return;
+        }
+
+        FXMLLoader loader = new FXMLLoader(MainController.class.getResource("/com/example/bednovac/ComparisonView.fxml"));
+        Scene scene;
+        try {
+            scene = new Scene(loader.load());
+        } catch (IOException e) {
+            LOGGER.error("Failed to load comparison view.", e);
+            uiUpdates.setText(moneyLabel, "Srovnání nelze otevřít.");
+            return;
+        }
+        comparisonController = loader.getController();
+        comparisonController.start(priceService, trendAnalyzer, uiUpdates, caseChoiceBox.getItems(), amountMinor,
+                selectedCurrency);
+        comparisonStage = new Stage();
+        comparisonStage.setTitle("Srovnání beden");
+        comparisonStage.setScene(scene);
+        comparisonStage.setOnHidden(event -> {
+            comparisonController.dispose();
+            comparisonController = null;
+            comparisonStage = null;
+        });
+        comparisonStage.show();
+    }
+
+    /**
+     * Zobrazí výsledek optimalizace rozpočtu. Musí být volána na FX threadu.
+     *
+     * @param plan     Výsledek optimalizace.
+     * @param currency Měna rozpočtu.
+     */
+    private void showBudgetPlan(BudgetPlan plan, Currency currency) {
+        uiUpdates.setText(casesLabel, String.format("Bedny: %d", plan.getTotalCount()));
+        uiUpdates.setText(keysLabel, String.format("Klíče: %d", plan.getTotalCount()));
+        String remaining = BundleCalculator.toDecimal(plan.getRemainingCents()).toPlainString();
+        uiUpdates.setText(moneyLabel, remaining + " " + currency.getCode());
+
+        StringBuilder content = new StringBuilder();
+        for (Map.Entry<String, Long> entry : plan.getCounts().entrySet()) {
+            content.append(entry.getValue()).append("× ").append(entry.getKey()).append('\n');
+        }
+        content.append("\nUtraceno: ").append(BundleCalculator.toDecimal(plan.getSpentCents()).toPlainString())
+                .append(' ').append(currency.getCode())
+                .append(", zbývá: ").append(remaining).append(' ').append(currency.getCode());
+        Alert alert = new Alert(Alert.AlertType.INFORMATION);
+        alert.setTitle("Optimalizace rozpočtu");
+        alert.setHeaderText(plan.getCounts().isEmpty() ? "Na žádný balíček nestačí rozpočet."
+                : "Nejlepší kombinace balíčků (bedna + klíč)");
+        alert.setContentText(content.toString());
+        alert.show();
+    }
+
+    /**
+     * Živý přepočet po změně částky, měny nebo bedny (po uplynutí debounce).
+     * Ceny se berou z cache {@link PriceService}; na API se sáhne jen tehdy,
+     * když cena v cache chybí nebo je starší než její TTL. Neplatný či
+     * rozepsaný vstup výsledek jen nechá beze změny.
+     */
+    private void recalculateLive() {
+        String amountText = amountTextField.getText().strip();
+        Currency selectedCurrency = currencyChoiceBox.getValue();
+        String selectedCase = caseChoiceBox.getValue();
+        if (amountText.isEmpty() || selectedCurrency == null || selectedCase == null) {
+            return;
+        }
+        long amountMinor;
+        try {
+            amountMinor = BundleCalculator.parseMinorUnits(amountText);
+        } catch (NumberFormatException e) {
+            return; // Rozepsaná částka - chybu ukáže až kliknutí na "Vypočítat"
+        }
+        if (amountMinor < 0) {
+            return; // Uživatel teprve napsal "-"
+        }
+        lastAmountMinor = amountMinor;
+        lastCurrency = selectedCurrency;
+        lastCase = selectedCase;
+        if (comparisonController != null) {
+            comparisonController.setBudget(amountMinor, selectedCurrency);
+        }
+        calculate(amountMinor, selectedCurrency, selectedCase);
+    }
+
+    /**
+     * Přepočítá poslední zobrazený výsledek, např. po obnově ceny na pozadí.
+     * Musí být volána na FX threadu.
+     */
+    private void recalculateLastResult() {
+        String caseName = lastCase;
+        Currency currency = lastCurrency;
+        if (caseName == null || currency == null) {
+            return; // Uživatel mezitím výsledek resetoval
+        }
+        LOGGER.debug("Price changed in background, recalculating result for case: {}", caseName);
+        uiUpdates.setDisable(exchangeButton, true);
+        calculate(lastAmountMinor, currency, caseName);
+    }
+
+    /**
+     * Asynchronně získá cenu bedny a klíče ve zvolené měně a zobrazí, kolik
+     * balíčků (bedna + klíč) si uživatel může koupit.
+     * Cena bedny se stahuje přímo v měně uživatele, pokud ji Steam podporuje;
+     * jinak ji {@link PriceService} převede z USD přes směnné kurzy. Samotný
+     * výpočet v setinách měny provádí {@link BundleCalculator}.
+     * Nový výpočet zruší předchozí rozpracovaný; jeho výsledek se už
+     * nezobrazí. Musí být volána na FX threadu.
+     *
+     * @param amountMinor      Částka zadaná uživatelem v setinách měny.
+     * @param selectedCurrency Měna částky.
+     * @param selectedCase     Název bedny.
+     */
+    private void calculate(long amountMinor, Currency selectedCurrency, String selectedCase) {
+        if (LOGGER.isDebugEnabled()) { // Převod částky a pole argumentů jen při zapnutém DEBUG
+            LOGGER.debug("Starting calculation for amount: {} {} for case: {}",
+                    BundleCalculator.toDecimal(amountMinor), selectedCurrency.name(), selectedCase);
+        }
+
+        BundleCalculationEvent event = new BundleCalculationEvent(); // Měří až po zobrazení výsledku
+        event.begin();
+        long started = System.nanoTime();
+        long generation = ++calculationGeneration;
+        if (runningCalculation != null) {
+            runningCalculation.cancel(false); // Zruší jen tento výpočet, sdílené stahování cen v cache běží dál
+        }
+        runningCalculation = bundleCalculator.calculate(amountMinor, selectedCase, selectedCurrency);
+        runningCalculation.whenComplete((result, e) -> {
+            if (generation != calculationGeneration) {
+                event.complete(selectedCase, selectedCurrency, amountMinor, BundleCalculationEvent.SUPERSEDED, 0);
+                return; // Mezitím byl spuštěn novější výpočet
+            }
+            uiUpdates.submit(exchangeButton, "result", () -> {
+                if (generation != calculationGeneration) {
+                    event.complete(selectedCase, selectedCurrency, amountMinor, BundleCalculationEvent.SUPERSEDED, 0);
+                    return;
+                }
+                runningCalculation = null;
+                calculationLatency.recordSince(started); // Výsledek (i chyba) se teď zobrazí
+                if (e != null) {
+                    event.complete(selectedCase, selectedCurrency, amountMinor, BundleCalculationEvent.ERROR, 0);
+                    LOGGER.error("Failed to calculate bundles for case: {}", selectedCase, e);
+                    showExchangeError(e.getCause() instanceof IllegalArgumentException
+                            ? "Cena bedny + klíče je neplatná."
+                            : "Nepodařilo se získat data z API. Zkuste to znovu.");
+                    return;
+                }
+                if (result == null) {
+                    event.complete(selectedCase, selectedCurrency, amountMinor, BundleCalculationEvent.UNAVAILABLE, 0);
+                    LOGGER.warn("Failed to fetch case price or key price for: {}", selectedCase);
+                    showExchangeError("Chyba při získávání dat (ceny/kurzu).");
+                    return;
+                }
+                uiUpdates.setText(casesLabel, String.format("Bedny: %d", result.getBundles()));
+                uiUpdates.setText(keysLabel, String.format("Klíče: %d", result.getBundles())); // Stejný počet klíčů jako beden
+                uiUpdates.setText(moneyLabel, BundleCalculator.toDecimal(result.getRemainingMinor()).toPlainString() + " "
+                        + selectedCurrency.getCode()); // Zbytek; přepíše i chybu z předchozího výpočtu
+                uiUpdates.setDisable(exchangeButton, false); // Znovu povolit tlačítko
+                event.complete(selectedCase, selectedCurrency, amountMinor, BundleCalculationEvent.OK,
+                        result.getBundles());
+            });
+        });
+    }
+
+    /**
+     * Zobrazí chybu výpočtu a znovu povolí tlačítko "Vypočítat".
+     *
+     * @param message Text chyby pro uživatele.
+     */
+    private void showExchangeError(String message) {
+        uiUpdates.setText(moneyLabel, message);
+        uiUpdates.setDisable(exchangeButton, false);
+    }
+
     /**
      * Metoda pro zpracování události kliknutí na tlačítko "Reset" (resetButton).
      * Vymaže zadanou částku a resetuje labely na nulu.
@@ -272,10 +632,18 @@ public class MainController implements Initializable {
     @FXML
     public void handleResetButtonClick() {
         // Resetování textového pole a štítků
+        lastCase = null;
+        liveRecalculation.stop();
+        calculationGeneration++; // Před zrušením: callback zrušeného výpočtu běží hned a musí ho vidět jako starý
+        if (runningCalculation != null) {
+            runningCalculation.cancel(false);
+            runningCalculation = null;
+        }
+        uiUpdates.setDisable(exchangeButton, false);
         amountTextField.clear();
-        moneyLabel.setText("0 USD");
-        keysLabel.setText("0 Keys");
-        casesLabel.setText("0 Cases");
+        uiUpdates.setText(moneyLabel, "0 USD");
+        uiUpdates.setText(keysLabel, "0 Keys");
+        uiUpdates.setText(casesLabel, "0 Cases");
     }
 
     // --- Gettery a Settery pro FXML komponenty ---
@@ -289,6 +657,14 @@ public class MainController implements Initializable {
         this.priceService = priceService;
     }
 
+    public PriceHistoryStore getHistoryStore() {
+        return historyStore;
+    }
+
+    public PriceTrendAnalyzer getTrendAnalyzer() {
+        return trendAnalyzer;
+    }
+
     public void setMoneyLabel(Label moneyLabel) {
         this.moneyLabel = moneyLabel;
     }
@@ -321,6 +697,14 @@ public class MainController implements Initializable {
         return resetButton;
     }
 
+    public BudgetOptimizer getBudgetOptimizer() {
+        return budgetOptimizer;
+    }
+
+    public BundleCalculator getBundleCalculator() {
+        return bundleCalculator;
+    }
+
     public void setKeysLabel(Label keysLabel) {
         this.keysLabel = keysLabel;
     }
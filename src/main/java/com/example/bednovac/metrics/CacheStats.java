@@ -0,0 +1,75 @@
+package com.example.bednovac.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Čítače dotazů do jedné cache. Zápis je jen {@code incrementAndGet}, bez
+ * zámků a alokací.
+ */
+public final class CacheStats {
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private volatile LongSupplier entries = () -> 0;
+
+    /** Čerstvá data v cache. */
+    public void hit() {
+        hits.incrementAndGet();
+    }
+
+    /** Data v cache nejsou, stahují se z API. */
+    public void miss() {
+        misses.incrementAndGet();
+    }
+
+    /** Vrácena prošlá data v toleranční lhůtě, obnova běží na pozadí. */
+    public void stale() {
+        stale.incrementAndGet();
+    }
+
+    /** Dotaz se připojil k rozpracovanému stahování. */
+    public void coalesced() {
+        coalesced.incrementAndGet();
+    }
+
+    /**
+     * Nastaví zdroj aktuálního počtu položek cache.
+     *
+     * @param entries Např. {@code map::size}.
+     */
+    public void setEntries(LongSupplier entries) {
+        this.entries = entries;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getStale() {
+        return stale.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    public long getEntries() {
+        return entries.getAsLong();
+    }
+
+    /**
+     * @return Podíl dotazů, které vrátila cache bez čekání na síť (čerstvá i
+     *         prošlá data), ze všech dotazů; 0, pokud žádný nebyl.
+     */
+    public double getHitRatio() {
+        long served = hits.get() + stale.get();
+        long total = served + misses.get() + coalesced.get();
+        return total == 0 ? 0 : served / (double) total;
+    }
+}
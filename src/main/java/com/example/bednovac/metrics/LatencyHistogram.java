@@ -0,0 +1,119 @@
+package com.example.bednovac.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram latencí s log-lineárními koši (podobně jako HdrHistogram).
+ * <p>
+ * Každá mocnina dvou je rozdělena na {@value #SUB_BUCKETS} stejně širokých
+ * košů, relativní chyba percentilu je tak nejvýše 12,5 % v celém rozsahu od
+ * nanosekund po dny. Zápis je jedno {@code incrementAndGet} do
+ * {@link AtomicLongArray} plus aktualizace počtu, součtu a maxima: bez zámků
+ * a bez alokací, takže může zůstat zapnutý i na horké cestě.
+ * <p>
+ * Snímek ({@link #snapshot()}) se čte bez zastavení zápisů; hodnoty v něm
+ * tedy nemusí být vzájemně přesně konzistentní.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS; // Pokryje celý rozsah long
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sumNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Zaznamená jednu latenci.
+     *
+     * @param nanos Doba v nanosekundách; záporné hodnoty se počítají jako 0.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(bucketIndex(value));
+        count.incrementAndGet();
+        sumNanos.addAndGet(value);
+        long max;
+        while (value > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, value)) {
+            // Jiné vlákno zapsalo maximum současně - zkusit znovu
+        }
+    }
+
+    /**
+     * Zaznamená dobu od daného okamžiku do teď.
+     *
+     * @param startNanos Hodnota {@link System#nanoTime()} na začátku měření.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return Souhrn histogramu (počet, průměr, percentily a maximum).
+     */
+    public HistogramSnapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long max = maxNanos.get();
+        long recorded = count.get();
+        return new HistogramSnapshot(total,
+                recorded == 0 ? 0 : toMillis(sumNanos.get()) / recorded,
+                toMillis(percentile(counts, total, 0.50, max)),
+                toMillis(percentile(counts, total, 0.90, max)),
+                toMillis(percentile(counts, total, 0.99, max)),
+                toMillis(percentile(counts, total, 0.999, max)),
+                toMillis(max));
+    }
+
+    /**
+     * Horní mez koše, ve kterém leží daný percentil (nejvýše skutečné maximum).
+     */
+    private static long percentile(long[] counts, long total, double quantile, long max) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
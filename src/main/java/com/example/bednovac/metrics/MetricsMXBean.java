@@ -0,0 +1,25 @@
+package com.example.bednovac.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX rozhraní registru metrik (objekt {@code com.example.bednovac:type=Metrics}),
+ * čitelné např. v JConsole nebo JDK Mission Control.
+ */
+public interface MetricsMXBean {
+
+    /**
+     * @return Souhrny histogramů latencí podle názvu metriky.
+     */
+    Map<String, HistogramSnapshot> getLatencies();
+
+    /**
+     * @return Hodnoty čítačů podle názvu metriky.
+     */
+    Map<String, Long> getCounters();
+
+    /**
+     * @return Statistiky cache podle jejich názvu.
+     */
+    Map<String, CacheStats> getCaches();
+}
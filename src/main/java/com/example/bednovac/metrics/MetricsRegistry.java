@@ -0,0 +1,117 @@
+package com.example.bednovac.metrics;
+
+import com.example.bednovac.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registr metrik běžících stále, nejen při ladění: histogramy latencí,
+ * čítače a statistiky cache.
+ * <p>
+ * Metriky se vytvářejí jednou (typicky v konstruktoru služby) a služba si na
+ * ně drží odkaz; samotný zápis pak nehledá v mapě a nealokuje. Ven se metriky
+ * dostanou přes JMX ({@link #registerMBean()}) a periodický snímek na disk
+ * ({@link MetricsSnapshotWriter}).
+ */
+public class MetricsRegistry implements MetricsMXBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    // Seřazené podle názvu, aby byl výpis stabilní
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentSkipListMap<>();
+    private final Map<String, AtomicLong> counters = new ConcurrentSkipListMap<>();
+    private final Map<String, CacheStats> caches = new ConcurrentSkipListMap<>();
+
+    /**
+     * @return Registr sdílený celou aplikací.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Název metriky s hostem, např. {@code api.fetchCasePrice{host=steamcommunity.com}}.
+     *
+     * @param name Název metriky.
+     * @param host Host, ke kterému se metrika vztahuje.
+     * @return Složený název.
+     */
+    public static String withHost(String name, String host) {
+        return name + "{host=" + host + "}";
+    }
+
+    /**
+     * Vrátí histogram daného názvu, případně ho vytvoří.
+     *
+     * @param name Název metriky.
+     * @return Histogram latencí.
+     */
+    public LatencyHistogram latency(String name) {
+        return latencies.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Vrátí čítač daného názvu, případně ho vytvoří.
+     *
+     * @param name Název metriky.
+     * @return Čítač.
+     */
+    public AtomicLong counter(String name) {
+        return counters.computeIfAbsent(name, key -> new AtomicLong());
+    }
+
+    /**
+     * Vrátí statistiky cache daného názvu, případně je vytvoří.
+     *
+     * @param name Název cache.
+     * @return Statistiky cache.
+     */
+    public CacheStats cache(String name) {
+        return caches.computeIfAbsent(name, key -> new CacheStats());
+    }
+
+    /**
+     * Zaregistruje registr jako MXBean {@value Constants#METRICS_MBEAN_NAME}
+     * v platformním MBean serveru. Opakované volání nic nedělá.
+     */
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this,
+                    new ObjectName(Constants.METRICS_MBEAN_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // Už zaregistrováno
+        } catch (JMException e) {
+            LOGGER.warn("Failed to register metrics MBean.", e);
+        }
+    }
+
+    @Override
+    public Map<String, HistogramSnapshot> getLatencies() {
+        Map<String, HistogramSnapshot> snapshots = new LinkedHashMap<>();
+        latencies.forEach((name, histogram) -> snapshots.put(name, histogram.snapshot()));
+        return snapshots;
+    }
+
+    @Override
+    public Map<String, Long> getCounters() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        return values;
+    }
+
+    @Override
+    public Map<String, CacheStats> getCaches() {
+        return new LinkedHashMap<>(caches);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.bednovac.metrics;
+
+import com.example.bednovac.util.Constants;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodicky zapisuje snímek {@link MetricsRegistry} do JSON souboru, aby
+ * šly metriky prohlédnout i bez JMX klienta (a po ukončení aplikace).
+ * Soubor se přepisuje atomicky, čtenář tak nikdy neuvidí rozepsaný snímek.
+ */
+public final class MetricsSnapshotWriter implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsSnapshotWriter.class);
+
+    private final MetricsRegistry registry;
+    private final Path file;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ScheduledExecutorService executor;
+
+    /**
+     * Vytvoří zapisovač a naplánuje periodický zápis.
+     *
+     * @param registry        Registr metrik.
+     * @param file            Cílový soubor.
+     * @param intervalSeconds Interval zápisu.
+     */
+    public MetricsSnapshotWriter(MetricsRegistry registry, Path file, long intervalSeconds) {
+        this.registry = registry;
+        this.file = file;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-snapshot");
+            thread.setDaemon(true); // Nesmí bránit ukončení aplikace
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::write, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Spustí zápis výchozího registru do {@code ~/.bednovac/metrics.json}
+     * každých {@link Constants#METRICS_SNAPSHOT_INTERVAL_SECONDS} sekund.
+     *
+     * @return Běžící zapisovač.
+     */
+    public static MetricsSnapshotWriter startDefault() {
+        return new MetricsSnapshotWriter(MetricsRegistry.getDefault(), Path.of(System.getProperty("user.home"),
+                Constants.PERSISTENT_CACHE_DIR, Constants.METRICS_SNAPSHOT_FILE),
+                Constants.METRICS_SNAPSHOT_INTERVAL_SECONDS);
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Zastaví periodický zápis a zapíše poslední snímek. Periodický zápis,
+     * který právě běží, se nejdřív nechá doběhnout, aby oba nepsaly do
+     * stejného dočasného souboru.
+     */
+    @Override
+    public void close() {
+        executor.shutdown(); // Zruší další periodické zápisy, běžící nepřeruší
+        try {
+            if (!executor.awaitTermination(Constants.PERSISTENT_WRITE_CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Metrics snapshot writer did not finish within {} s",
+                        Constants.PERSISTENT_WRITE_CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        write();
+    }
+
+    /**
+     * Zapíše aktuální snímek metrik.
+     */
+    public void write() {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (JsonGenerator json = jsonFactory.createGenerator(tmp.toFile(), JsonEncoding.UTF8)) {
+                json.useDefaultPrettyPrinter();
+                writeSnapshot(json);
+            }
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write metrics snapshot: {}", file, e);
+        }
+    }
+
+    private void writeSnapshot(JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("timestamp", Instant.now().toString());
+
+        json.writeObjectFieldStart("latencies");
+        for (Map.Entry<String, HistogramSnapshot> entry : registry.getLatencies().entrySet()) {
+            HistogramSnapshot histogram = entry.getValue();
+            json.writeObjectFieldStart(entry.getKey());
+            json.writeNumberField("count", histogram.getCount());
+            json.writeNumberField("meanMs", histogram.getMeanMillis());
+            json.writeNumberField("p50Ms", histogram.getP50Millis());
+            json.writeNumberField("p90Ms", histogram.getP90Millis());
+            json.writeNumberField("p99Ms", histogram.getP99Millis());
+            json.writeNumberField("p999Ms", histogram.getP999Millis());
+            json.writeNumberField("maxMs", histogram.getMaxMillis());
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+
+        json.writeObjectFieldStart("counters");
+        for (Map.Entry<String, Long> entry : registry.getCounters().entrySet()) {
+            json.writeNumberField(entry.getKey(), entry.getValue());
+        }
+        json.writeEndObject();
+
+        json.writeObjectFieldStart("caches");
+        for (Map.Entry<String, CacheStats> entry : registry.getCaches().entrySet()) {
+            CacheStats cache = entry.getValue();
+            json.writeObjectFieldStart(entry.getKey());
+            json.writeNumberField("hits", cache.getHits());
+            json.writeNumberField("misses", cache.getMisses());
+            json.writeNumberField("stale", cache.getStale());
+            json.writeNumberField("coalesced", cache.getCoalesced());
+            json.writeNumberField("entries", cache.getEntries());
+            json.writeNumberField("hitRatio", cache.getHitRatio());
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+
+        json.writeEndObject();
+    }
+}
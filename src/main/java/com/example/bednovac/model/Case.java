@@ -4,27 +4,43 @@ import java.util.Objects;
 
 /**
  * Třída reprezentující bednu (Case) ve hře.
- * Obsahuje název bedny a její aktuální cenu v USD.
+ * Obsahuje název bedny, její aktuální cenu a měnu, ve které je cena uvedena.
  */
 public class Case {
     private String caseName;
-    private double casePriceUsd;
+    private double casePrice;
+    private final Currency currency;
 
     /**
-     * Konstruktor třídy Case.
+     * Konstruktor třídy Case s cenou v USD.
      *
      * @param caseName     Název bedny.
      * @param casePriceUsd Cena bedny v USD.
      */
     public Case(String caseName, double casePriceUsd) {
+        this(caseName, casePriceUsd, Currency.USD);
+    }
+
+    /**
+     * Konstruktor třídy Case.
+     *
+     * @param caseName  Název bedny.
+     * @param casePrice Cena bedny.
+     * @param currency  Měna ceny.
+     */
+    public Case(String caseName, double casePrice, Currency currency) {
         if (caseName == null || caseName.isEmpty()) {
             throw new IllegalArgumentException("Case name cannot be null or empty");
         }
-        if (casePriceUsd < 0) {
+        if (casePrice < 0) {
             throw new IllegalArgumentException("Case price cannot be negative");
         }
+        if (currency == null) {
+            throw new IllegalArgumentException("Case currency cannot be null");
+        }
         this.caseName = caseName;
-        this.casePriceUsd = casePriceUsd;
+        this.casePrice = casePrice;
+        this.currency = currency;
     }
 
     @Override
@@ -34,20 +50,22 @@ public class Case {
         if (o == null || getClass() != o.getClass())
             return false;
         Case aCase = (Case) o;
-        return Double.compare(aCase.casePriceUsd, casePriceUsd) == 0 &&
-                Objects.equals(caseName, aCase.caseName);
+        return Double.compare(aCase.casePrice, casePrice) == 0 &&
+                Objects.equals(caseName, aCase.caseName) &&
+                currency == aCase.currency;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(caseName, casePriceUsd);
+        return Objects.hash(caseName, casePrice, currency);
     }
 
     @Override
     public String toString() {
         return "Case{" +
                 "caseName='" + caseName + '\'' +
-                ", casePriceUsd=" + casePriceUsd +
+                ", casePrice=" + casePrice +
+                ", currency=" + currency +
                 '}';
     }
 
@@ -72,21 +90,30 @@ public class Case {
     }
 
     /**
-     * Vrátí cenu bedny v USD.
+     * Vrátí cenu bedny v měně {@link #getCurrency()}.
      * 
      * @return Cena bedny.
      */
     public double getPrice() {
-        return casePriceUsd;
+        return casePrice;
     }
 
     /**
-     * Nastaví cenu bedny v USD.
+     * Nastaví cenu bedny v měně {@link #getCurrency()}.
      * 
      * @param price Nová cena bedny.
      */
     public void setPrice(double price) {
-        this.casePriceUsd = price;
+        this.casePrice = price;
+    }
+
+    /**
+     * Vrátí měnu, ve které je uvedena cena bedny.
+     * 
+     * @return Měna ceny.
+     */
+    public Currency getCurrency() {
+        return currency;
     }
 
 }
@@ -1,18 +1,127 @@
 package com.example.bednovac.model;
 
-public enum Currency {
-    USD("US Dollar"),
-    EUR("Euro"),
-    CZK("Czech Koruna");
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
-    private final String fullName;
+/**
+ * Měna identifikovaná třípísmenným ISO kódem.
+ * <p>
+ * Měny tvoří dynamický registr: kromě výchozích USD, EUR a CZK se další
+ * registrují za běhu podle odpovědi frankfurter API ({@code /currencies}).
+ * Každá měna je v registru právě jednou (lze ji porovnávat pomocí {@code ==})
+ * a dostane pořadové číslo {@link #ordinal()}, podle kterého {@link Exchange}
+ * indexuje svá pole kurzů.
+ */
+public final class Currency {
+
+    private static final Map<String, Currency> BY_CODE = new ConcurrentHashMap<>();
+    private static volatile Currency[] registered = new Currency[0];
+
+    public static final Currency USD = register("USD", "US Dollar");
+    public static final Currency EUR = register("EUR", "Euro");
+    public static final Currency CZK = register("CZK", "Czech Koruna");
+
+    private final String code;
+    private final int ordinal;
+    private volatile String fullName;
 
     /**
-     * Konstruktor pro enum Currency.
-     * @param fullName  měny (např. Kč, €, $).
+     * Konstruktor měny. Měny se vytváří jen přes {@link #register(String, String)}.
+     * @param code Kód měny (např. "CZK").
+     * @param fullName Celý název měny (např. "Czech Koruna").
+     * @param ordinal Pořadové číslo v registru.
      */
-    Currency(String fullName) {
+    private Currency(String code, String fullName, int ordinal) {
+        this.code = code;
         this.fullName = fullName;
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * Zaregistruje měnu, případně vrátí už registrovanou měnu se stejným kódem.
+     * Pokud registrovaná měna zatím nemá celý název (byla zaregistrována jen
+     * podle kódu), název se doplní.
+     * @param code Kód měny (např. "PLN").
+     * @param fullName Celý název měny, nebo null.
+     * @return Instance měny.
+     * @throws IllegalArgumentException Pokud kód není třípísmenný.
+     */
+    public static synchronized Currency register(String code, String fullName) {
+        String normalized = normalize(code);
+        Currency existing = BY_CODE.get(normalized);
+        if (existing != null) {
+            if (fullName != null && !fullName.isEmpty() && existing.fullName.equals(existing.code)) {
+                existing.fullName = fullName;
+            }
+            return existing;
+        }
+        Currency[] current = registered;
+        Currency currency = new Currency(normalized, fullName == null || fullName.isEmpty() ? normalized : fullName,
+                current.length);
+        Currency[] extended = Arrays.copyOf(current, current.length + 1);
+        extended[currency.ordinal] = currency;
+        registered = extended; // Nejdřív pole, pak mapa - kdo měnu najde, najde i její index
+        BY_CODE.put(normalized, currency);
+        return currency;
+    }
+
+    /**
+     * Vrátí měnu podle kódu; neznámou měnu zaregistruje.
+     * @param code Kód měny.
+     * @return Instance měny.
+     */
+    public static Currency of(String code) {
+        Currency currency = BY_CODE.get(normalize(code));
+        return currency != null ? currency : register(code, null);
+    }
+
+    /**
+     * Vrátí už registrovanou měnu podle kódu. Na rozdíl od {@link #of(String)}
+     * nic neregistruje, hodí se proto pro kódy z nedůvěryhodného vstupu.
+     * @param code Kód měny (velikost písmen nerozhoduje), nebo null.
+     * @return Instance měny, nebo null, pokud měna registrovaná není.
+     */
+    public static Currency find(String code) {
+        return code != null ? BY_CODE.get(code.toUpperCase(Locale.ROOT)) : null;
+    }
+
+    /**
+     * Vrátí všechny registrované měny v pořadí registrace.
+     * @return Kopie pole registrovaných měn.
+     */
+    public static Currency[] values() {
+        return registered.clone();
+    }
+
+    /**
+     * Vrátí neměnný seznam registrovaných měn (bez kopírování pole).
+     * @return Seznam registrovaných měn.
+     */
+    public static List<Currency> list() {
+        return List.of(registered);
+    }
+
+    /**
+     * Vrátí počet registrovaných měn.
+     * @return Počet měn.
+     */
+    public static int count() {
+        return registered.length;
+    }
+
+    public String name() {
+        return code;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public int ordinal() {
+        return ordinal;
     }
 
     public String getFullName() {
@@ -21,17 +130,28 @@ public enum Currency {
 
     /**
      * Pomocná metoda pro získání instance Currency z řetězce (např. z ComboBoxu).
-     * Může být užitečné, pokud potřebuješ převést uživatelský vstup na enum.
+     * Může být užitečné, pokud potřebuješ převést uživatelský vstup na měnu.
      * @param currencyCode Kód měny (např. "CZK", "EUR", "USD").
      * @return Instance Currency odpovídající kódu.
-     * @throws IllegalArgumentException Pokud kód neodpovídá žádné definované měně.
+     * @throws IllegalArgumentException Pokud kód neodpovídá žádné registrované měně.
      */
     public static Currency fromString(String currencyCode) {
-        for (Currency currency : Currency.values()) {
-            if (currency.name().equalsIgnoreCase(currencyCode)) {
-                return currency;
-            }
+        Currency currency = currencyCode != null ? BY_CODE.get(currencyCode.toUpperCase(Locale.ROOT)) : null;
+        if (currency == null) {
+            throw new IllegalArgumentException("Unknown currency code: " + currencyCode);
         }
-        throw new IllegalArgumentException("Unknown currency code: " + currencyCode);
+        return currency;
+    }
+
+    private static String normalize(String code) {
+        if (code == null || code.length() != 3) {
+            throw new IllegalArgumentException("Invalid currency code: " + code);
+        }
+        return code.toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public String toString() {
+        return code;
     }
 }
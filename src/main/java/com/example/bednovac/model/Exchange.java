@@ -1,12 +1,24 @@
 package com.example.bednovac.model;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Collections;
+
+/**
+ * Směnné kurzy vztažené k jedné základní měně.
+ * Kurzy jsou uloženy v poli indexovaném pořadím měny ({@link Currency#ordinal()})
+ * a všechny křížové kurzy jsou předpočítané v matici N×N, takže převod je
+ * jen jedno čtení z pole a násobení - bez boxingu a hashování.
+ * Velikost polí odpovídá počtu měn registrovaných při vytvoření instance;
+ * měny registrované později v ní nemají kurz.
+ */
 public class Exchange {
+    private final Currency[] currencies; // Registrované měny v okamžiku vytvoření (index = ordinal)
+
     private final Currency baseCurrency;
-    private final Map<Currency, Double> rates; // Kód cílové měny -> směnný kurz (kolik cílové měny za 1 jednotku baseCurrency)
+    private final double[] rates; // Index = ordinal cílové měny -> kurz (kolik cílové měny za 1 jednotku baseCurrency), NaN = chybí
+    private final double[] crossRates; // [from * N + to] -> kolik měny 'to' za 1 jednotku měny 'from', NaN = chybí
 
     /**
      * Konstruktor pro vytvoření instance směnných kurzů.
@@ -24,7 +36,31 @@ public class Exchange {
             throw new IllegalArgumentException("Rates cannot be null or empty");
         }
         this.baseCurrency = baseCurrency;
-        this.rates = new HashMap<>(rates); // Vytvoří kopii mapy, aby byla neměnná
+
+        for (Currency currency : rates.keySet()) {
+            if (currency == null) {
+                throw new IllegalArgumentException("Currency in rates cannot be null");
+            }
+        }
+        this.currencies = Currency.values(); // Všechny měny z mapy už jsou registrované
+        int n = currencies.length;
+        this.rates = new double[n]; // Vlastní kopie, aby byla instance neměnná
+        Arrays.fill(this.rates, Double.NaN);
+        for (Map.Entry<Currency, Double> entry : rates.entrySet()) {
+            Double rate = entry.getValue();
+            if (rate != null && rate > 0) {
+                this.rates[entry.getKey().ordinal()] = rate;
+            }
+        }
+        this.rates[baseCurrency.ordinal()] = 1.0; // Kurz pro stejnou měnu je vždy 1
+
+        this.crossRates = new double[n * n];
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n; to++) {
+                // NaN se propaguje, takže chybějící kurz zůstane chybějící i v matici
+                this.crossRates[from * n + to] = from == to ? 1.0 : this.rates[to] / this.rates[from];
+            }
+        }
     }
 
 
@@ -32,6 +68,15 @@ public class Exchange {
         return baseCurrency;
     }
 
+    /**
+     * Zjistí, zda je k dispozici kurz pro zadanou měnu.
+     * @param currency Cílová měna.
+     * @return True, pokud {@link #getRate(Currency)} pro měnu nevyhodí výjimku.
+     */
+    public boolean hasRate(Currency currency) {
+        return currency != null && currency.ordinal() < rates.length && !Double.isNaN(rates[currency.ordinal()]);
+    }
+
     /**
      * Získá směnný kurz z základní měny na zadanou cílovou měnu.
      * Příklad: Pokud baseCurrency je USD a targetCurrency je EUR, vrátí kurz 1 USD = X EUR.
@@ -43,18 +88,30 @@ public class Exchange {
         if (targetCurrency == null) {
             throw new IllegalArgumentException("Target currency cannot be null");
         }
-        if (baseCurrency.equals(targetCurrency)) {
-            return 1.0; // Kurz pro stejnou měnu je vždy 1
-        }
-        Double rate = rates.get(targetCurrency);
-        if (rate == null) {
+        int index = targetCurrency.ordinal();
+        double rate = index < rates.length ? rates[index] : Double.NaN;
+        if (Double.isNaN(rate)) {
             throw new IllegalArgumentException("Rate for " + targetCurrency + " not found");
         }
         return rate;
     }
+    /**
+     * Vrátí měny, pro které jsou k dispozici kurzy (včetně základní měny).
+     * @return Seznam měn v pořadí registrace.
+     */
+    public List<Currency> getAvailableCurrencies() {
+        List<Currency> available = new ArrayList<>();
+        for (Currency currency : currencies) {
+            if (!Double.isNaN(rates[currency.ordinal()])) {
+                available.add(currency);
+            }
+        }
+        return available;
+    }
+
     /**
      * Pomocná metoda pro převod částky z jedné měny na jinou s využitím těchto kurzů.
-     * Tato metoda předpokládá, že 'this.baseCurrency' je referenční bod.
+     * Křížové kurzy jsou předpočítané, převod je jedno čtení z matice a násobení.
      *
      * @param amount Částka k převodu.
      * @param fromMena Měna, ze které se převádí.
@@ -66,31 +123,62 @@ public class Exchange {
         if(amount < 0) {
             throw new IllegalArgumentException("Amount cannot be negative");
         }
-        if (fromMena == null || toMena == null) {
-            throw new IllegalArgumentException("Currencies cannot be null");
+        return amount * crossRate(fromMena, toMena);
+    }
+
+    /**
+     * Hromadný převod mnoha částek mezi dvěma měnami (např. celý inventář).
+     * Kurz se vyhledá jen jednou a smyčka pracuje s primitivními poli.
+     *
+     * @param amounts Částky k převodu.
+     * @param fromMena Měna, ze které se převádí.
+     * @param toMena Měna, na kterou se převádí.
+     * @param result Pole pro výsledky (může být totožné s {@code amounts}), alespoň stejně dlouhé.
+     * @throws IllegalArgumentException Pokud kurz není dostupný, pole je příliš krátké nebo je některá částka záporná.
+     */
+    public void convert(double[] amounts, Currency fromMena, Currency toMena, double[] result) {
+        if (result.length < amounts.length) {
+            throw new IllegalArgumentException("Result array is too short");
         }
-        if (fromMena.equals(baseCurrency)) {
-           return amount * getRate(toMena); // Převod z baseCurrency na toMena
+        double rate = crossRate(fromMena, toMena);
+        for (int i = 0; i < amounts.length; i++) {
+            double amount = amounts[i];
+            if (amount < 0) {
+                throw new IllegalArgumentException("Amount cannot be negative");
+            }
+            result[i] = amount * rate;
         }
-        else if(toMena.equals(baseCurrency)) {
-            double rateFromBase = getRate(fromMena);
-            return amount / rateFromBase; // Převod z fromMena na baseCurrency
+    }
+
+    /**
+     * Vrátí předpočítaný křížový kurz: kolik měny {@code toMena} za 1 jednotku měny {@code fromMena}.
+     *
+     * @throws IllegalArgumentException Pokud kurz pro dané měny není dostupný.
+     */
+    private double crossRate(Currency fromMena, Currency toMena) {
+        if (fromMena == null || toMena == null) {
+            throw new IllegalArgumentException("Currencies cannot be null");
         }
-        else {
-            double amountInBase = amount / getRate(fromMena); // Nejprve převede amount na baseCurrency
-            return amountInBase * getRate(toMena); // Poté převede na toMena
+        int n = currencies.length;
+        int from = fromMena.ordinal();
+        int to = toMena.ordinal();
+        double rate = from < n && to < n ? crossRates[from * n + to] : Double.NaN;
+        if (Double.isNaN(rate)) {
+            throw new IllegalArgumentException("Rate for " + (hasRate(fromMena) ? toMena : fromMena) + " not found");
         }
+        return rate;
     }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (!(o instanceof Exchange)) return false;
         Exchange that = (Exchange) o;
-        return baseCurrency == that.baseCurrency && Objects.equals(rates, that.rates);
+        return baseCurrency == that.baseCurrency && Arrays.equals(rates, that.rates);
     }
     @Override
     public int hashCode() {
-        return Objects.hash(baseCurrency, rates);
+        return 31 * baseCurrency.hashCode() + Arrays.hashCode(rates);
     }
 
     @Override
@@ -98,11 +186,16 @@ public class Exchange {
         StringBuilder sb = new StringBuilder("Exchange{");
         sb.append("baseCurrency=").append(baseCurrency);
         sb.append(", rates={");
-        for (Map.Entry<Currency, Double> entry : rates.entrySet()) {
-            sb.append(entry.getKey()).append(": ").append(entry.getValue()).append(", ");
-        }
-        if (!rates.isEmpty()) {
-            sb.setLength(sb.length() - 2); // Odstraní poslední čárku a mezeru
+        boolean first = true;
+        for (Currency currency : currencies) {
+            if (currency == baseCurrency || Double.isNaN(rates[currency.ordinal()])) {
+                continue;
+            }
+            if (!first) {
+                sb.append(", ");
+            }
+            sb.append(currency).append(": ").append(rates[currency.ordinal()]);
+            first = false;
         }
         sb.append("}}");
         return sb.toString();
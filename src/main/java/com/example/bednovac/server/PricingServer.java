@@ -0,0 +1,317 @@
+package com.example.bednovac.server;
+
+import com.example.bednovac.metrics.MetricsRegistry;
+import com.example.bednovac.metrics.MetricsSnapshotWriter;
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.model.Exchange;
+import com.example.bednovac.service.ApiClient;
+import com.example.bednovac.service.BundleCalculator;
+import com.example.bednovac.service.BundleResult;
+import com.example.bednovac.service.PriceRefreshScheduler;
+import com.example.bednovac.service.PriceService;
+import com.example.bednovac.util.Constants;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Volitelný lokální HTTP server, který zpřístupní ceny z {@link PriceService}
+ * dalším nástrojům. Všechny požadavky sdílí jednu cache, takže skripty
+ * nevolají Steam každý zvlášť.
+ * <p>
+ * Server naslouchá jen na loopbacku a každý požadavek obsluhuje ve vlastním
+ * virtuálním vlákně; čekání na cenu tak neblokuje žádné platformové vlákno.
+ * Endpointy (pouze GET, odpovědi v JSON):
+ * <ul>
+ * <li>{@code /case?name=...&currency=EUR} - cena bedny,</li>
+ * <li>{@code /exchange?currency=EUR} - směnné kurzy (bez parametru všechny),</li>
+ * <li>{@code /bundle?case=...&amount=100&currency=EUR} - počet balíčků
+ * (bedna + klíč) za danou částku.</li>
+ * </ul>
+ * Parametr {@code currency} je nepovinný, výchozí je USD.
+ */
+public class PricingServer implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PricingServer.class);
+
+    static {
+        // Bez TCP_NODELAY čeká každá malá odpověď na zpožděné ACK klienta (desítky ms)
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final PriceService priceService;
+    private final BundleCalculator bundleCalculator;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Vytvoří a spustí server.
+     *
+     * @param priceService Sdílená služba cen.
+     * @param port         Port na loopbacku, nebo 0 pro libovolný volný port.
+     * @throws IOException Pokud se port nepodaří otevřít.
+     */
+    public PricingServer(PriceService priceService, int port) throws IOException {
+        this.priceService = priceService;
+        this.bundleCalculator = new BundleCalculator(priceService);
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.createContext("/case", handler(this::handleCase));
+        server.createContext("/exchange", handler(this::handleExchange));
+        server.createContext("/bundle", handler(this::handleBundle));
+        server.setExecutor(executor);
+        server.start();
+        LOGGER.info("Pricing server listening on http://127.0.0.1:{}", getPort());
+    }
+
+    /**
+     * @return Port, na kterém server naslouchá.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Zastaví server. Rozpracované požadavky dostanou krátký čas na dokončení.
+     */
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    private void handleCase(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String caseName = requireParam(params, "name");
+        Currency currency = currencyParam(params);
+        Case caseData = await(priceService.getCasePrice(caseName, currency));
+        if (caseData == null) {
+            throw new RequestException(503, "Price unavailable for case: " + caseName);
+        }
+        Duration age = priceService.getCasePriceAge(caseName, currency);
+        respond(exchange, 200, json -> {
+            json.writeStringField("name", caseData.getName());
+            json.writeStringField("currency", caseData.getCurrency().getCode());
+            json.writeNumberField("price", caseData.getPrice());
+            if (age != null) {
+                json.writeNumberField("ageSeconds", age.toSeconds());
+            }
+        });
+    }
+
+    private void handleExchange(HttpExchange exchange, Map<String, String> params) throws IOException {
+        Exchange rates = await(priceService.getExchange());
+        if (rates == null) {
+            throw new RequestException(503, "Exchange rates unavailable");
+        }
+        Currency currency = params.containsKey("currency") ? currencyParam(params) : null;
+        if (currency != null && !rates.hasRate(currency)) {
+            throw new RequestException(404, "No exchange rate for currency: " + currency.getCode());
+        }
+        respond(exchange, 200, json -> {
+            json.writeStringField("base", rates.getBaseCurrency().getCode());
+            json.writeObjectFieldStart("rates");
+            if (currency != null) {
+                json.writeNumberField(currency.getCode(), rates.getRate(currency));
+            } else {
+                for (Currency available : rates.getAvailableCurrencies()) {
+                    json.writeNumberField(available.getCode(), rates.getRate(available));
+                }
+            }
+            json.writeEndObject();
+        });
+    }
+
+    private void handleBundle(HttpExchange exchange, Map<String, String> params) throws IOException {
+        String caseName = requireParam(params, "case");
+        Currency currency = currencyParam(params);
+        long amountMinor;
+        try {
+            amountMinor = BundleCalculator.parseMinorUnits(requireParam(params, "amount"));
+        } catch (NumberFormatException e) {
+            throw new RequestException(400, "Invalid amount");
+        }
+        if (amountMinor < 0) {
+            throw new RequestException(400, "Invalid amount");
+        }
+
+        BundleResult result = await(bundleCalculator.calculate(amountMinor, caseName, currency));
+        if (result == null) {
+            throw new RequestException(503, "Price unavailable for case: " + caseName);
+        }
+        respond(exchange, 200, json -> {
+            json.writeStringField("case", caseName);
+            json.writeStringField("currency", currency.getCode());
+            json.writeNumberField("amount", BundleCalculator.toDecimal(result.getAmountMinor()));
+            json.writeNumberField("casePrice", BundleCalculator.toDecimal(result.getCasePriceMinor()));
+            json.writeNumberField("keyPrice", BundleCalculator.toDecimal(result.getKeyPriceMinor()));
+            json.writeNumberField("bundles", result.getBundles());
+            json.writeNumberField("remaining", BundleCalculator.toDecimal(result.getRemainingMinor()));
+        });
+    }
+
+    /**
+     * Obalí obsluhu endpointu: ověří metodu, rozparsuje parametry a převede
+     * chyby na JSON odpověď se správným stavovým kódem.
+     */
+    private HttpHandler handler(Endpoint endpoint) {
+        return exchange -> {
+            try {
+                if (!"GET".equals(exchange.getRequestMethod())) {
+                    throw new RequestException(405, "Only GET is supported");
+                }
+                endpoint.handle(exchange, parseQuery(exchange.getRequestURI().getRawQuery()));
+            } catch (RequestException e) {
+                respondError(exchange, e.status, e.getMessage());
+            } catch (RuntimeException e) {
+                LOGGER.warn("Pricing server request failed: {}", exchange.getRequestURI(), e);
+                respondError(exchange, 500, "Internal error");
+            } finally {
+                exchange.close();
+            }
+        };
+    }
+
+    /**
+     * Počká na výsledek ceny. Blokuje jen virtuální vlákno požadavku.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(Constants.PRICING_SERVER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new RequestException(504, "Price lookup timed out");
+        } catch (ExecutionException e) {
+            throw new RequestException(502, "Price lookup failed: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RequestException(503, "Server is shutting down");
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(key, value);
+        }
+        return params;
+    }
+
+    private static String requireParam(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            throw new RequestException(400, "Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    /**
+     * Přečte měnu z parametru {@code currency}. Neznámé kódy se odmítnou,
+     * aby klient nemohl registr měn zvětšovat libovolnými kódy.
+     */
+    private Currency currencyParam(Map<String, String> params) {
+        String code = params.get("currency");
+        if (code == null || code.isBlank()) {
+            return Currency.USD;
+        }
+        Currency currency = await(priceService.findCurrency(code.strip()));
+        if (currency == null) {
+            throw new RequestException(400, "Unknown currency: " + code);
+        }
+        return currency;
+    }
+
+    private void respondError(HttpExchange exchange, int status, String message) throws IOException {
+        respond(exchange, status, json -> json.writeStringField("error", message));
+    }
+
+    private void respond(HttpExchange exchange, int status, JsonBody body) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        try (JsonGenerator json = jsonFactory.createGenerator(buffer)) {
+            json.writeStartObject();
+            body.write(json);
+            json.writeEndObject();
+        }
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, buffer.size());
+        try (OutputStream out = exchange.getResponseBody()) {
+            buffer.writeTo(out);
+        }
+    }
+
+    /**
+     * Samostatné spuštění serveru bez GUI. Ceny sledovaných beden se na pozadí
+     * průběžně obnovují, takže dotazy většinou končí zásahem do cache.
+     *
+     * @param args Volitelně port (výchozí {@link Constants#PRICING_SERVER_PORT}).
+     * @throws IOException Pokud se port nepodaří otevřít.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : Constants.PRICING_SERVER_PORT;
+        PriceService priceService = new PriceService(new ApiClient());
+        PriceRefreshScheduler refreshScheduler = new PriceRefreshScheduler(priceService, Constants.TRACKED_CASES);
+        refreshScheduler.start();
+        PricingServer server = new PricingServer(priceService, port);
+        MetricsRegistry.getDefault().registerMBean();
+        MetricsSnapshotWriter metricsWriter = MetricsSnapshotWriter.startDefault();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.close();
+            metricsWriter.close();
+            refreshScheduler.stop();
+            priceService.close();
+        }));
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        void handle(HttpExchange exchange, Map<String, String> params) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonGenerator json) throws IOException;
+    }
+
+    /**
+     * Chyba požadavku, která se klientovi vrátí s daným stavovým kódem.
+     */
+    private static final class RequestException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        RequestException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+}
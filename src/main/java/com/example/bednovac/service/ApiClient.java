@@ -1,105 +1,289 @@
 package com.example.bednovac.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.example.bednovac.metrics.LatencyHistogram;
+import com.example.bednovac.metrics.MetricsRegistry;
 import com.example.bednovac.model.Case;
 import com.example.bednovac.model.Currency;
 import com.example.bednovac.model.Exchange;
 import com.example.bednovac.util.Constants; // Pro API klíče, URL apod.
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture; // Pro asynchronní operace
-import java.util.logging.Level; // Pro logování
-import java.util.logging.Logger; // Pro logování
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class ApiClient {
 
-    private static final Logger LOGGER = Logger.getLogger(ApiClient.class.getName()); // Pro logování chyb a informací
-    private final ObjectMapper objectMapper; // Pro parsování JSON odpovědí
-    private final HttpClient httpClient;
+    private static final Logger LOGGER = LoggerFactory.getLogger(ApiClient.class); // Pro logování chyb a informací
+    private final ResponseParser responseParser; // Pro proudové parsování JSON odpovědí
+    private final HttpTransport transport;
+
+    private final String casePriceUrlFormat; // Šablona URL ceny bedny (appid, currency, market_hash_name)
+
+    private final String exchangeRateUrl; // URL směnných kurzů
+
+    private final String currenciesUrl; // URL seznamu podporovaných měn
+
+    // Rozpracované požadavky na ceny beden (měna:market_hash_name -> future), sdílené souběžnými volajícími
+    private final Map<String, CompletableFuture<Case>> inFlightCaseRequests = new ConcurrentHashMap<>();
+
+    // Omezuje počet souběžných požadavků na Steam, aby nedošlo k překročení rate limitu
+    private final RequestLimiter caseRequestLimiter = new RequestLimiter(Constants.MAX_CONCURRENT_CASE_REQUESTS);
+
+    // Stále zapnuté metriky podle hostu; zápis je bez zámků a alokací
+    private final LatencyHistogram casePriceLatency;
+    private final AtomicLong casePriceErrors;
+    private final LatencyHistogram exchangeRateLatency;
+    private final AtomicLong exchangeRateErrors;
 
     // Konstruktor třídy ApiClient.
     public ApiClient() {
-        this.objectMapper = new ObjectMapper();
-        this.httpClient = HttpClient.newHttpClient();
+        this(new HttpTransport());
+    }
+
+    /**
+     * Konstruktor s vlastní transportní vrstvou.
+     *
+     * @param transport Transportní vrstva pro odesílání HTTP požadavků.
+     */
+    public ApiClient(HttpTransport transport) {
+        this(transport, Constants.CASE_PRICE_API_URL, Constants.EXCHANGE_RATE_API_URL);
+    }
+
+    /**
+     * Konstruktor s vlastními adresami API (např. lokální stub pro benchmarky).
+     *
+     * @param transport          Transportní vrstva pro odesílání HTTP požadavků.
+     * @param casePriceUrlFormat Šablona URL ceny bedny se třemi {@code %s}
+     *                           (appid, currency, market_hash_name).
+     * @param exchangeRateUrl    URL směnných kurzů.
+     */
+    public ApiClient(HttpTransport transport, String casePriceUrlFormat, String exchangeRateUrl) {
+        this.responseParser = new ResponseParser(new JsonFactory());
+        this.transport = transport;
+        this.casePriceUrlFormat = casePriceUrlFormat;
+        this.exchangeRateUrl = exchangeRateUrl;
+        this.currenciesUrl = URI.create(exchangeRateUrl).resolve(Constants.CURRENCIES_API_PATH).toString();
+
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        String caseHost = URI.create(String.format(casePriceUrlFormat, Constants.STEAM_APP_ID, 1, "")).getHost();
+        String exchangeHost = URI.create(exchangeRateUrl).getHost();
+        this.casePriceLatency = metrics.latency(MetricsRegistry.withHost("api.fetchCasePrice", caseHost));
+        this.casePriceErrors = metrics.counter(MetricsRegistry.withHost("api.fetchCasePrice.errors", caseHost));
+        this.exchangeRateLatency = metrics.latency(MetricsRegistry.withHost("api.fetchExchangeRates", exchangeHost));
+        this.exchangeRateErrors = metrics.counter(MetricsRegistry.withHost("api.fetchExchangeRates.errors",
+                exchangeHost));
+    }
+
+    /**
+     * Zjistí, zda Steam Market umí vracet ceny v dané měně.
+     *
+     * @param currency Měna.
+     * @return True, pokud lze ceny stáhnout přímo v této měně.
+     */
+    public static boolean supportsCurrency(Currency currency) {
+        return Constants.STEAM_CURRENCY_IDS.containsKey(currency.getCode());
+    }
+
+    /**
+     * Asynchronně získá ceny více beden najednou v USD.
+     *
+     * @param caseNames Názvy beden (market_hash_name).
+     * @return CompletableFuture s mapou název bedny -> Case.
+     * @see #fetchCasePrices(Collection, Currency)
+     */
+    public CompletableFuture<Map<String, Case>> fetchCasePrices(Collection<String> caseNames) {
+        return fetchCasePrices(caseNames, Currency.USD);
+    }
+
+    /**
+     * Asynchronně získá ceny více beden najednou.
+     * Duplicitní názvy se stahují jen jednou a souběžné požadavky na stejnou
+     * bednu sdílí jeden rozpracovaný požadavek. Počet souběžných požadavků na
+     * Steam je omezen konstantou {@link Constants#MAX_CONCURRENT_CASE_REQUESTS}.
+     *
+     * @param caseNames Názvy beden (market_hash_name).
+     * @param currency  Měna cen; musí ji podporovat Steam
+     *                  ({@link #supportsCurrency(Currency)}).
+     * @return CompletableFuture s mapou název bedny -> Case. Bedny, jejichž cenu
+     *         se nepodařilo získat, v mapě chybí.
+     */
+    public CompletableFuture<Map<String, Case>> fetchCasePrices(Collection<String> caseNames, Currency currency) {
+        List<String> uniqueNames = List.copyOf(new LinkedHashSet<>(caseNames));
+        List<CompletableFuture<Case>> futures = new ArrayList<>(uniqueNames.size());
+        for (String name : uniqueNames) {
+            futures.add(fetchCasePrice(name, currency));
+        }
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture<?>[]::new))
+                .thenApply(v -> {
+                    Map<String, Case> prices = new LinkedHashMap<>();
+                    for (int i = 0; i < futures.size(); i++) {
+                        Case casePrice = futures.get(i).join(); // Už je dokončený, neblokuje
+                        if (casePrice != null) {
+                            prices.put(uniqueNames.get(i), casePrice);
+                        }
+                    }
+                    return prices;
+                });
+    }
+
+    /**
+     * Asynchronně získá aktuální cenu bedny v USD.
+     *
+     * @param caseName Název bedny (např. "Kilowatt Case").
+     * @return CompletableFuture s instancí Case, nebo null v případě chyby.
+     * @see #fetchCasePrice(String, Currency)
+     */
+    public CompletableFuture<Case> fetchCasePrice(String caseName) {
+        return fetchCasePrice(caseName, Currency.USD);
     }
 
     /**
-     * Asynchronně získá aktuální cenu bedny z externího API.
-     * Tato metoda předpokládá API, které vrací JSON s cenou v USD.
+     * Asynchronně získá aktuální cenu bedny z externího API přímo v zadané
+     * měně. Pokud už pro stejnou bednu a měnu běží požadavek, vrátí jeho
+     * rozpracovaný výsledek místo odeslání dalšího požadavku.
      *
      * @param caseName Název bedny (např. "Kilowatt Case"). Musí přesně odpovídat
      *                 formátu API.
+     * @param currency Měna ceny; musí ji podporovat Steam
+     *                 ({@link #supportsCurrency(Currency)}).
      * @return CompletableFuture, který obsahuje instanci Case s aktualizovanou
      *         cenou, nebo null v případě chyby.
+     * @throws IllegalArgumentException Pokud Steam danou měnu nepodporuje.
      */
+    public CompletableFuture<Case> fetchCasePrice(String caseName, Currency currency) {
+        Integer steamCurrencyId = Constants.STEAM_CURRENCY_IDS.get(currency.getCode());
+        if (steamCurrencyId == null) {
+            throw new IllegalArgumentException("Steam Market does not support currency: " + currency);
+        }
+        String requestKey = currency.getCode() + ':' + caseName;
+        CompletableFuture<Case> pending = inFlightCaseRequests.get(requestKey);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<Case> created = new CompletableFuture<>();
+        pending = inFlightCaseRequests.putIfAbsent(requestKey, created);
+        if (pending != null) {
+            return pending; // Jiné vlákno bylo rychlejší
+        }
 
-    public CompletableFuture<Case> fetchCasePrice(String caseName) {
+        long started = System.nanoTime(); // Včetně čekání na volný slot limiteru
+        caseRequestLimiter.submit(() -> requestCasePrice(caseName, currency, steamCurrencyId))
+                .whenComplete((casePrice, error) -> {
+                    // Nejdřív odebrat, aby další volání po dokončení spustilo nový požadavek
+                    inFlightCaseRequests.remove(requestKey, created);
+                    casePriceLatency.recordSince(started);
+                    if (error != null || casePrice == null) {
+                        casePriceErrors.incrementAndGet();
+                    }
+                    if (error != null) {
+                        created.completeExceptionally(error);
+                    } else {
+                        created.complete(casePrice);
+                    }
+                });
+        return created;
+    }
+
+    /**
+     * Odešle požadavek na cenu bedny do Steam API.
+     *
+     * @param caseName        Název bedny.
+     * @param currency        Měna ceny.
+     * @param steamCurrencyId Identifikátor měny na Steamu.
+     * @return CompletableFuture s instancí Case, nebo null v případě chyby.
+     */
+    private CompletableFuture<Case> requestCasePrice(String caseName, Currency currency, int steamCurrencyId) {
         String encodedCaseName;
         try {
             encodedCaseName = URLEncoder.encode(caseName, StandardCharsets.UTF_8.toString());
-            String url = String.format(
-                    "https://steamcommunity.com/market/priceoverview/?appid=%s&currency=%s&market_hash_name=%s", "730",
-                    "6",
-                    encodedCaseName); // URL pro získání ceny bedny z API (appid=730 je CS:GO, currency=6 je
-                                      // pravděpodobně pro PLN nebo jinou měnu, ale Steam API to může brát různě,
-                                      // pozor na to)
+            String url = String.format(casePriceUrlFormat, Constants.STEAM_APP_ID,
+                    steamCurrencyId,
+                    encodedCaseName); // URL pro získání ceny bedny z API ve zvolené měně
 
             URI uri = URI.create(url);
-            HttpRequest reguest = HttpRequest.newBuilder()
-                    .uri(uri)
-                    .GET()
-                    .build();
-
-            return httpClient.sendAsync(reguest, HttpResponse.BodyHandlers.ofString())
-                    .thenApply(HttpResponse::body)
-                    .thenApply(response -> {
-                        try {
-                            JsonNode rootNode = objectMapper.readTree(response);
+            HttpRequest reguest = transport.newRequest(uri).build();
 
-                            String lowestPriceStr = rootNode.path("lowest_price").asText(null);
-                            if (lowestPriceStr == null || lowestPriceStr.isEmpty()) {
-                                LOGGER.log(Level.WARNING,
-                                        "Lowest price not found for case: " + caseName + ", response: " + response);
+            return send(reguest, caseName, currency)
+                    .thenApply(httpResponse -> {
+                        if (httpResponse.statusCode() != 200) {
+                            LOGGER.warn("Steam API returned HTTP {} for case: {}", httpResponse.statusCode(),
+                                    caseName);
+                            return null;
+                        }
+                        try {
+                            ResponseParser.PriceOverview overview = responseParser
+                                    .parsePriceOverview(httpResponse.body());
+                            double price = overview != null ? overview.getBestPrice() : Double.NaN;
+                            if (Double.isNaN(price)) {
+                                LOGGER.warn("Lowest price not found for case: {}", caseName);
                                 return null; // Pokud lowest_price není v odpovědi, vrátí null
                             }
-                            // Odstranění měny a převod na číslo
-                            String normalized = lowestPriceStr.replaceAll("[^0-9,\\.]", "").replace(",", "."); // Nahrazení
-                                                                                                               // čárky
-                                                                                                               // tečkou
-                                                                                                               // pro
-                                                                                                               // desetinnou
-                                                                                                               // část
-                            double price = Double.parseDouble(normalized);
 
-                            LOGGER.info("Successfully fetched price for case: " + caseName + ", price: " + price);
+                            LOGGER.info("Successfully fetched price for case: {}, price: {} {}", caseName, price,
+                                    currency);
 
-                            return new Case(caseName, price); // Vrátí objekt Case s cenou
+                            return new Case(caseName, price, currency); // Vrátí objekt Case s cenou
 
                         } catch (IOException e) {
-                            LOGGER.log(Level.WARNING, "Failed to parse response for case: " + caseName, e);
+                            LOGGER.warn("Failed to parse response for case: {}", caseName, e);
                             return null; // Pokud dojde k chybě při parsování, vrátí null
                         }
                     })
                     .exceptionally(e -> {
-                        LOGGER.log(Level.WARNING, "Failed to fetch case price for: " + caseName, e);
+                        LOGGER.warn("Failed to fetch case price for: {}", caseName, e);
                         return null; // Pokud dojde k chybě při volání API, vrátí null
                     });
         } catch (Exception e) {
-            LOGGER.log(Level.WARNING, "Failed to encode case name: " + caseName, e);
+            LOGGER.warn("Failed to encode case name: {}", caseName, e);
             return CompletableFuture.completedFuture(null); // Pokud dojde k chybě při kódování, vrátí null
         }
 
     }
 
+    /**
+     * Odešle požadavek a zaznamená ho jako JFR událost {@link ApiRequestEvent}.
+     * Když záznam neběží, stojí měření jen kontrolu zapnutí události.
+     *
+     * @param request  Požadavek.
+     * @param caseName Název bedny, nebo null pro kurzy a měny.
+     * @param currency Měna ceny bedny, nebo null.
+     * @return CompletableFuture s odpovědí (tělo jako pole bajtů).
+     */
+    private CompletableFuture<HttpResponse<byte[]>> send(HttpRequest request, String caseName, Currency currency) {
+        ApiRequestEvent event = new ApiRequestEvent();
+        event.begin();
+        return transport.send(request, HttpResponse.BodyHandlers.ofByteArray())
+                .whenComplete((httpResponse, e) -> {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.host = request.uri().getHost();
+                        event.caseName = caseName;
+                        event.currency = currency != null ? currency.getCode() : null;
+                        event.status = httpResponse != null ? httpResponse.statusCode() : 0;
+                        event.bytes = httpResponse != null && httpResponse.body() != null
+                                ? httpResponse.body().length
+                                : 0;
+                        event.commit();
+                    }
+                });
+    }
+
     /**
      * Asynchronně získá aktuální směnné kurzy z externího API.
      * Tato metoda předpokládá API jako ExchangeRate-API.com s USD jako základní
@@ -110,45 +294,75 @@ public class ApiClient {
      */
 
     public CompletableFuture<Exchange> fetchExchangeRates() {
-        String url = "https://api.frankfurter.app/latest?base=USD"; // URL pro získání směnných kurzů s USD jako
-                                                                    // základní měnou
+        String url = exchangeRateUrl; // URL pro získání směnných kurzů s USD jako základní měnou
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
+        HttpRequest request = transport.newRequest(URI.create(url)).build();
 
-        LOGGER.log(Level.INFO, "Fetching exchange rates from API: " + url);
+        LOGGER.debug("Fetching exchange rates from API: {}", url);
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(responseBody -> {
-                    LOGGER.info("Exchange rates API response: " + responseBody);
+        long started = System.nanoTime();
+        return send(request, null, null)
+                .thenApply(httpResponse -> {
+                    if (httpResponse.statusCode() != 200) {
+                        LOGGER.warn("Exchange rates API returned HTTP {}", httpResponse.statusCode());
+                        return null;
+                    }
                     try {
-                        JsonNode rootNode = objectMapper.readTree(responseBody);
-                        if (rootNode.has("error-type")) {
-                            LOGGER.log(Level.WARNING, "API returned error: " + rootNode.path("error-type").asText());
+                        Exchange exchange = responseParser.parseExchangeRates(httpResponse.body());
+                        if (exchange == null) {
+                            LOGGER.warn("API returned error or no usable exchange rates.");
                             return null; // Pokud API vrátí chybu, vrátí null
                         }
-                        Currency baseCurrency = Currency.fromString(rootNode.path("base").asText("USD"));
-                        Map<Currency, Double> rates = new HashMap<>();
-                        JsonNode ratesNode = rootNode.path("rates");
-                        for (Currency currency : Currency.values()) {
-                            if (ratesNode.has(currency.name())) {
-                                rates.put(currency, ratesNode.path(currency.name()).asDouble(0.0));
-                            }
-                        }
-                        Exchange exchange = new Exchange(baseCurrency, rates);
-                        LOGGER.info("Successfully fetched exchange rates: " + exchange);
+                        LOGGER.info("Successfully fetched {} exchange rates.",
+                                exchange.getAvailableCurrencies().size());
+                        LOGGER.debug("Fetched exchange rates: {}", exchange); // Celý výpis jen při ladění
                         return exchange; // Vrátí objekt Exchange s aktuálními kurzy
-                    } catch (IOException e) {
-                        LOGGER.log(Level.WARNING, "Failed to parse exchange rates response", e);
+                    } catch (IOException | IllegalArgumentException e) {
+                        LOGGER.warn("Failed to parse exchange rates response", e);
                         return null; // Pokud dojde k chybě při parsování, vrátí null
                     }
                 })
                 .exceptionally(e -> {
-                    LOGGER.log(Level.WARNING, "Failed to fetch exchange rates", e);
+                    LOGGER.warn("Failed to fetch exchange rates", e);
                     return null; // Pokud dojde k chybě při volání API, vrátí null
+                })
+                .whenComplete((exchange, e) -> {
+                    exchangeRateLatency.recordSince(started);
+                    if (exchange == null) {
+                        exchangeRateErrors.incrementAndGet();
+                    }
+                });
+    }
+
+    /**
+     * Asynchronně získá seznam měn podporovaných frankfurter API a zaregistruje
+     * je v registru {@link Currency}.
+     *
+     * @return CompletableFuture se seznamem měn, nebo null v případě chyby.
+     */
+    public CompletableFuture<List<Currency>> fetchCurrencies() {
+        HttpRequest request = transport.newRequest(URI.create(currenciesUrl)).build();
+
+        LOGGER.debug("Fetching currencies from API: {}", currenciesUrl);
+
+        return send(request, null, null)
+                .thenApply(httpResponse -> {
+                    if (httpResponse.statusCode() != 200) {
+                        LOGGER.warn("Currencies API returned HTTP {}", httpResponse.statusCode());
+                        return null;
+                    }
+                    try {
+                        List<Currency> currencies = responseParser.parseCurrencies(httpResponse.body());
+                        LOGGER.info("Successfully fetched {} currencies.", currencies.size());
+                        return currencies;
+                    } catch (IOException e) {
+                        LOGGER.warn("Failed to parse currencies response", e);
+                        return null;
+                    }
+                })
+                .exceptionally(e -> {
+                    LOGGER.warn("Failed to fetch currencies", e);
+                    return null;
                 });
     }
 }
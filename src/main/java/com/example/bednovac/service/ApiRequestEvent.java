@@ -0,0 +1,40 @@
+package com.example.bednovac.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR událost jednoho HTTP požadavku {@link ApiClient}. Doba trvání zahrnuje
+ * odeslání, případná opakování v {@link HttpTransport} a přijetí celé
+ * odpovědi; čekání ve frontě {@link RequestLimiter} nezahrnuje.
+ */
+@Name("bednovac.ApiRequest")
+@Label("API Request")
+@Category({ "Bednovac", "Network" })
+@Description("HTTP request sent by ApiClient, including transport retries")
+@StackTrace(false)
+final class ApiRequestEvent extends Event {
+
+    @Label("Host")
+    String host;
+
+    @Label("Case")
+    @Description("Case name, missing for exchange rate and currency requests")
+    String caseName;
+
+    @Label("Currency")
+    String currency;
+
+    @Label("Status")
+    @Description("HTTP status code, 0 when the request failed")
+    int status;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+}
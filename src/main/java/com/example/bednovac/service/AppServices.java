@@ -0,0 +1,127 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.metrics.MetricsRegistry;
+import com.example.bednovac.metrics.MetricsSnapshotWriter;
+import com.example.bednovac.model.Currency;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Služby sdílené hlavním oknem: HTTP klient s cenovou cache, historie cen,
+ * trendové ukazatele a výpočet balíčků.
+ * <p>
+ * Připravují se při startu aplikace na vlákně na pozadí
+ * ({@link #prepareAsync(String, Currency)}) ještě předtím, než FX vlákno
+ * začne parsovat FXML a CSS. Hned po vytvoření se spustí stahování kurzů,
+ * seznamu měn a ceny výchozí bedny, takže síť běží souběžně se stavbou
+ * okna a první výsledek bývá k dispozici, když se okno zobrazí.
+ * <p>
+ * Zároveň zpřístupní metriky aplikace přes JMX a začne zapisovat jejich
+ * periodický snímek na disk.
+ */
+public class AppServices {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AppServices.class);
+
+    private final PriceService priceService;
+    private final PriceHistoryStore historyStore;
+    private final PriceTrendAnalyzer trendAnalyzer = new PriceTrendAnalyzer();
+    private final BundleCalculator bundleCalculator;
+    private final MetricsSnapshotWriter metricsWriter;
+    private volatile CompletableFuture<Void> prefetch = CompletableFuture.completedFuture(null);
+
+    private AppServices() {
+        priceService = new PriceService(new ApiClient());
+        bundleCalculator = new BundleCalculator(priceService);
+        historyStore = PriceHistoryStore.defaultStore();
+        // Posluchači bez UI se registrují před prvním dotazem, aby jim neunikla žádná cena
+        priceService.addPriceUpdateListener(trendAnalyzer); // Musí být před posluchači UI, které trendy čtou
+        priceService.addPriceUpdateListener(new PriceHistoryRecorder(historyStore));
+        MetricsRegistry.getDefault().registerMBean();
+        metricsWriter = MetricsSnapshotWriter.startDefault();
+    }
+
+    /**
+     * Vytvoří služby na aktuálním vlákně bez přednačítání.
+     *
+     * @return Nové služby.
+     */
+    public static AppServices create() {
+        return new AppServices();
+    }
+
+    /**
+     * Na samostatném vlákně vytvoří služby a spustí přednačítání dat pro
+     * výchozí výběr v UI.
+     *
+     * @param caseName Výchozí bedna.
+     * @param currency Výchozí měna.
+     * @return CompletableFuture se službami; dokončí se hned po jejich
+     *         vytvoření, nečeká na síť.
+     */
+    public static CompletableFuture<AppServices> prepareAsync(String caseName, Currency currency) {
+        return CompletableFuture.supplyAsync(() -> {
+            AppServices services = create();
+            services.prefetch(caseName, currency);
+            return services;
+        }, task -> Thread.ofPlatform().name("bednovac-startup").daemon().start(task));
+    }
+
+    /**
+     * Spustí stahování kurzů, seznamu měn, ceny bedny a ceny klíče. Vše jde
+     * přes cache {@link PriceService}, pozdější dotazy z UI se tak napojí na
+     * rozpracované požadavky.
+     *
+     * @param caseName Bedna.
+     * @param currency Měna.
+     * @return CompletableFuture dokončená, až jsou všechna data v cache (i
+     *         když některý dotaz selže).
+     */
+    public CompletableFuture<Void> prefetch(String caseName, Currency currency) {
+        LOGGER.info("Prefetching startup data for case: {} in {}", caseName, currency);
+        CompletableFuture<Void> started = CompletableFuture.allOf(priceService.getExchange(),
+                priceService.getCurrencies(), priceService.getCasePrice(caseName, currency),
+                priceService.getKeyPrice(currency))
+                .exceptionally(e -> {
+                    LOGGER.warn("Startup prefetch failed.", e);
+                    return null;
+                });
+        prefetch = started;
+        return started;
+    }
+
+    /**
+     * @return Poslední spuštěné přednačítání (hotové, pokud žádné neběželo).
+     */
+    public CompletableFuture<Void> getPrefetch() {
+        return prefetch;
+    }
+
+    public PriceService getPriceService() {
+        return priceService;
+    }
+
+    public PriceHistoryStore getHistoryStore() {
+        return historyStore;
+    }
+
+    public PriceTrendAnalyzer getTrendAnalyzer() {
+        return trendAnalyzer;
+    }
+
+    public BundleCalculator getBundleCalculator() {
+        return bundleCalculator;
+    }
+
+    /**
+     * Uloží historii, čekající změny cache a poslední snímek metrik na disk.
+     * Volá se při ukončení aplikace.
+     */
+    public void close() {
+        metricsWriter.close();
+        historyStore.close();
+        priceService.close();
+    }
+}
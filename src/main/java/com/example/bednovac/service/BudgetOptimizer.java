@@ -0,0 +1,346 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.util.Constants;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Optimalizace nákupu: pro daný rozpočet najde kombinaci balíčků (bedna +
+ * klíč) ze všech sledovaných beden, která utratí co nejvíc peněz, nebo
+ * maximalizuje zadanou hodnotu.
+ * <p>
+ * Jde o celočíselný (omezený) batoh nad částkami v setinách měny. Bedny bez
+ * limitu se řeší jako neomezený batoh, bedny s limitem se rozdělí binárním
+ * dělením na položky 1, 2, 4, ... kusů. Kapacita se zmenší o největšího
+ * společného dělitele cen; pokud by tabulka byla příliš velká na interaktivní
+ * odezvu ({@link Constants#OPTIMIZER_MAX_DP_OPERATIONS},
+ * {@link Constants#OPTIMIZER_MAX_DP_CELLS}), ceny se zaokrouhlí
+ * nahoru na hrubší jednotku (řešení tak vždy zůstane v rozpočtu) a zbytek
+ * rozpočtu se dorovná hladově v přesných částkách.
+ * <p>
+ * Výsledky posledních dotazů se pamatují, takže opakovaný výpočet se stejnými
+ * cenami a rozpočtem je okamžitý.
+ */
+public class BudgetOptimizer {
+
+    /**
+     * Cíl optimalizace.
+     */
+    public enum Mode {
+        /** Utratit z rozpočtu co nejvíc. */
+        SPEND,
+        /** Maximalizovat součet hodnot ({@link Item#getValue()}) balíčků. */
+        VALUE
+    }
+
+    private final Map<PlanKey, BudgetPlan> memo = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<PlanKey, BudgetPlan> eldest) {
+            return size() > Constants.OPTIMIZER_MEMO_SIZE;
+        }
+    };
+
+    /**
+     * Najde nejlepší kombinaci balíčků pro daný rozpočet.
+     *
+     * @param items       Nabízené balíčky.
+     * @param budgetCents Rozpočet v setinách měny.
+     * @param mode        Cíl optimalizace.
+     * @return Nejlepší nalezený plán.
+     * @throws IllegalArgumentException Pokud je rozpočet záporný.
+     */
+    public BudgetPlan optimize(List<Item> items, long budgetCents, Mode mode) {
+        if (budgetCents < 0) {
+            throw new IllegalArgumentException("Budget cannot be negative");
+        }
+        PlanKey key = new PlanKey(List.copyOf(items), budgetCents, mode);
+        synchronized (memo) {
+            BudgetPlan cached = memo.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        BudgetPlan plan = solve(key.items, budgetCents, mode);
+        synchronized (memo) {
+            memo.put(key, plan);
+        }
+        return plan;
+    }
+
+    private static BudgetPlan solve(List<Item> items, long budgetCents, Mode mode) {
+        List<Item> usable = new ArrayList<>();
+        long gcd = 0;
+        for (Item item : items) {
+            if (item.costCents <= budgetCents && item.limit != 0 && (mode == Mode.SPEND || item.value > 0)) {
+                usable.add(item);
+                gcd = gcd(gcd, item.costCents);
+            }
+        }
+        long[] counts = new long[usable.size()];
+        if (!usable.isEmpty()) {
+            solveKnapsack(usable, budgetCents, gcd, mode, counts);
+            fillGreedily(usable, budgetCents, mode, counts);
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>();
+        long spent = 0;
+        double value = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                Item item = usable.get(i);
+                result.merge(item.name, counts[i], Long::sum);
+                spent += counts[i] * item.costCents;
+                value += counts[i] * valueOf(item, mode);
+            }
+        }
+        return new BudgetPlan(result, budgetCents, spent, value);
+    }
+
+    /**
+     * Vyřeší batoh dynamickým programováním nad (případně zhrubenou)
+     * kapacitou a počty kusů zapíše do {@code counts}.
+     */
+    private static void solveKnapsack(List<Item> items, long budgetCents, long gcd, Mode mode, long[] counts) {
+        // Položky DP: bedny bez limitu jednou (neomezeně), s limitem binárně rozdělené
+        List<Piece> pieces = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            long maxCount = budgetCents / item.costCents;
+            if (item.limit < 0 || item.limit >= maxCount) {
+                pieces.add(new Piece(i, 1, true));
+            } else {
+                long remaining = item.limit;
+                for (long multiple = 1; remaining > 0; multiple <<= 1) {
+                    long taken = Math.min(multiple, remaining);
+                    pieces.add(new Piece(i, taken, false));
+                    remaining -= taken;
+                }
+            }
+        }
+
+        long capacity = budgetCents / gcd;
+        long scale = 1;
+        long maxCapacity = Math.max(1,
+                Math.min(Constants.OPTIMIZER_MAX_DP_CELLS, Constants.OPTIMIZER_MAX_DP_OPERATIONS / pieces.size()));
+        if (capacity > maxCapacity) {
+            scale = (capacity + maxCapacity - 1) / maxCapacity; // Hrubší jednotka, aby tabulka zůstala malá
+            capacity /= scale;
+        }
+        int cells = (int) capacity + 1;
+
+        double[] best = new double[cells];
+        BitSet[] taken = new BitSet[pieces.size()];
+        for (int p = 0; p < pieces.size(); p++) {
+            Piece piece = pieces.get(p);
+            Item item = items.get(piece.item);
+            long unit = item.costCents / gcd;
+            long weight = (unit * piece.count + scale - 1) / scale; // Nahoru - plán se vejde do rozpočtu
+            double pieceValue = valueOf(item, mode) * piece.count;
+            BitSet choice = new BitSet(cells);
+            taken[p] = choice;
+            if (weight >= cells) {
+                continue;
+            }
+            int w = (int) weight;
+            if (piece.unbounded) {
+                for (int c = w; c < cells; c++) { // Dopředu - položku lze použít vícekrát
+                    double candidate = best[c - w] + pieceValue;
+                    if (candidate > best[c]) {
+                        best[c] = candidate;
+                        choice.set(c);
+                    }
+                }
+            } else {
+                for (int c = cells - 1; c >= w; c--) { // Pozpátku - položka nejvýše jednou
+                    double candidate = best[c - w] + pieceValue;
+                    if (candidate > best[c]) {
+                        best[c] = candidate;
+                        choice.set(c);
+                    }
+                }
+            }
+        }
+
+        // Zpětná rekonstrukce výběru od poslední položky
+        int c = cells - 1;
+        for (int p = pieces.size() - 1; p >= 0 && c > 0; ) {
+            Piece piece = pieces.get(p);
+            if (taken[p].get(c)) {
+                counts[piece.item] += piece.count;
+                long unit = items.get(piece.item).costCents / gcd;
+                c -= (int) ((unit * piece.count + scale - 1) / scale);
+                if (!piece.unbounded) {
+                    p--;
+                }
+            } else {
+                p--;
+            }
+        }
+    }
+
+    /**
+     * Dorovná zbytek rozpočtu v přesných částkách (po zhrubení může zbýt
+     * místo na další balíčky).
+     */
+    private static void fillGreedily(List<Item> items, long budgetCents, Mode mode, long[] counts) {
+        long remaining = budgetCents;
+        for (int i = 0; i < items.size(); i++) {
+            remaining -= counts[i] * items.get(i).costCents;
+        }
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparingDouble(i -> -valueOf(items.get(i), mode) / items.get(i).costCents));
+        for (int i : order) {
+            Item item = items.get(i);
+            long fits = remaining / item.costCents;
+            if (item.limit >= 0) {
+                fits = Math.min(fits, item.limit - counts[i]);
+            }
+            if (fits > 0) {
+                counts[i] += fits;
+                remaining -= fits * item.costCents;
+            }
+        }
+    }
+
+    private static double valueOf(Item item, Mode mode) {
+        return mode == Mode.SPEND ? item.costCents : item.value;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+
+    /**
+     * Nabízený balíček (bedna + klíč).
+     */
+    public static final class Item {
+        /** Limit pro bednu bez omezení počtu kusů. */
+        public static final int UNLIMITED = -1;
+
+        private final String name;
+        private final long costCents;
+        private final double value;
+        private final int limit;
+
+        /**
+         * Konstruktor balíčku.
+         *
+         * @param name      Název bedny.
+         * @param costCents Cena balíčku v setinách měny.
+         * @param value     Hodnota (váha) jednoho balíčku pro režim
+         *                  {@link Mode#VALUE}, např. očekávaná hodnota obsahu.
+         * @param limit     Maximální počet kusů, nebo {@link #UNLIMITED}.
+         * @throws IllegalArgumentException Pokud cena není kladná.
+         */
+        public Item(String name, long costCents, double value, int limit) {
+            if (costCents <= 0) {
+                throw new IllegalArgumentException("Bundle cost must be positive: " + name);
+            }
+            this.name = name;
+            this.costCents = costCents;
+            this.value = value;
+            this.limit = limit;
+        }
+
+        /**
+         * Balíček bez limitu, jehož hodnota je rovna ceně.
+         *
+         * @param name      Název bedny.
+         * @param costCents Cena balíčku v setinách měny.
+         */
+        public Item(String name, long costCents) {
+            this(name, costCents, costCents, UNLIMITED);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCostCents() {
+            return costCents;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public int getLimit() {
+            return limit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Item))
+                return false;
+            Item item = (Item) o;
+            return costCents == item.costCents && Double.compare(value, item.value) == 0 && limit == item.limit
+                    && name.equals(item.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, costCents, value, limit);
+        }
+    }
+
+    /**
+     * Položka DP: {@code count} kusů jedné bedny, případně neomezeně mnoho.
+     */
+    private static final class Piece {
+        private final int item;
+        private final long count;
+        private final boolean unbounded;
+
+        Piece(int item, long count, boolean unbounded) {
+            this.item = item;
+            this.count = count;
+            this.unbounded = unbounded;
+        }
+    }
+
+    /**
+     * Klíč paměti výsledků.
+     */
+    private static final class PlanKey {
+        private final List<Item> items;
+        private final long budgetCents;
+        private final Mode mode;
+
+        PlanKey(List<Item> items, long budgetCents, Mode mode) {
+            this.items = items;
+            this.budgetCents = budgetCents;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof PlanKey))
+                return false;
+            PlanKey other = (PlanKey) o;
+            return budgetCents == other.budgetCents && mode == other.mode && items.equals(other.items);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(items, budgetCents, mode);
+        }
+    }
+}
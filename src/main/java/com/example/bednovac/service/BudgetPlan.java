@@ -0,0 +1,70 @@
+package com.example.bednovac.service;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Výsledek {@link BudgetOptimizer}: kolik balíčků (bedna + klíč) kterých
+ * beden koupit. Částky jsou v setinách měny rozpočtu.
+ */
+public final class BudgetPlan {
+    private final Map<String, Long> counts;
+    private final long budgetCents;
+    private final long spentCents;
+    private final double value;
+
+    BudgetPlan(Map<String, Long> counts, long budgetCents, long spentCents, double value) {
+        this.counts = Collections.unmodifiableMap(counts);
+        this.budgetCents = budgetCents;
+        this.spentCents = spentCents;
+        this.value = value;
+    }
+
+    /**
+     * @return Počet balíčků podle názvu bedny (jen bedny s nenulovým počtem).
+     */
+    public Map<String, Long> getCounts() {
+        return counts;
+    }
+
+    /**
+     * @return Celkový počet balíčků.
+     */
+    public long getTotalCount() {
+        long total = 0;
+        for (long count : counts.values()) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getBudgetCents() {
+        return budgetCents;
+    }
+
+    public long getSpentCents() {
+        return spentCents;
+    }
+
+    public long getRemainingCents() {
+        return budgetCents - spentCents;
+    }
+
+    /**
+     * @return Součet hodnot koupených balíčků (v režimu
+     *         {@link BudgetOptimizer.Mode#SPEND} rovno utracené částce).
+     */
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "BudgetPlan{" +
+                "counts=" + counts +
+                ", budgetCents=" + budgetCents +
+                ", spentCents=" + spentCents +
+                ", value=" + value +
+                '}';
+    }
+}
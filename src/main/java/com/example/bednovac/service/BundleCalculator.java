@@ -0,0 +1,216 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.util.Constants;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+
+/**
+ * Výpočet, kolik balíčků (bedna + klíč) si uživatel za danou částku koupí.
+ * <p>
+ * Počítá v pevné řádové čárce: všechny částky jsou {@code long} v setinách
+ * měny (centy, haléře), takže dělení i zbytek jsou přesné. Pravidla
+ * zaokrouhlení: ceny z API (a ceny převedené kurzem) se zaokrouhlí na setiny
+ * matematicky ({@link RoundingMode#HALF_UP}), stejně tak částka zadaná
+ * uživatelem s více desetinnými místy; počet balíčků se zaokrouhluje dolů.
+ * <p>
+ * Statické metody jsou čistý výpočet bez UI a bez sítě, včetně dávkové
+ * varianty nad poli pro mnoho rozpočtů najednou. Instanční metody si ceny
+ * vyžádají z {@link PriceService} a skládají futures bez blokování.
+ */
+public class BundleCalculator {
+
+    // Celá část: samé číslice, nebo skupiny po třech oddělené stále stejným znakem
+    private static final Pattern AMOUNT_INTEGER_PART = Pattern.compile("[+-]?(\\d*|\\d{1,3}([,.])\\d{3}(\\2\\d{3})*)");
+    private static final Pattern AMOUNT_FRACTION = Pattern.compile("\\d*");
+    private static final int MAX_AMOUNT_INTEGER_DIGITS = 18; // Víc se do long v setinách nevejde
+
+    private final PriceService priceService;
+
+    /**
+     * Konstruktor kalkulačky.
+     *
+     * @param priceService Služba, ze které se berou ceny beden a klíče.
+     */
+    public BundleCalculator(PriceService priceService) {
+        this.priceService = priceService;
+    }
+
+    /**
+     * Asynchronně zjistí cenu bedny a klíče v dané měně a spočítá balíčky.
+     *
+     * @param amountMinor Částka v setinách měny.
+     * @param caseName    Název bedny.
+     * @param currency    Měna částky i cen.
+     * @return CompletableFuture s výsledkem, nebo null, pokud cena bedny či
+     *         kurz pro klíč nejsou dostupné.
+     */
+    public CompletableFuture<BundleResult> calculate(long amountMinor, String caseName, Currency currency) {
+        return priceService.getCasePrice(caseName, currency)
+                .thenCombine(priceService.getKeyPrice(currency), (caseData, keyPrice) -> {
+                    if (caseData == null || keyPrice == null) {
+                        return null;
+                    }
+                    return calculate(amountMinor, toMinorUnits(caseData.getPrice()), toMinorUnits(keyPrice));
+                });
+    }
+
+    /**
+     * Asynchronně spočítá balíčky pro mnoho rozpočtů najednou. Ceny se
+     * zjistí jednou, výsledky se zapíší do předaných polí.
+     *
+     * @param amountsMinor   Částky v setinách měny.
+     * @param caseName       Název bedny.
+     * @param currency       Měna částek i cen.
+     * @param bundles        Pole pro počty balíčků (stejná délka jako částky).
+     * @param remainingMinor Pole pro zbytky (stejná délka jako částky).
+     * @return CompletableFuture s true, pokud byly ceny dostupné a pole jsou
+     *         vyplněná, jinak s false.
+     */
+    public CompletableFuture<Boolean> calculate(long[] amountsMinor, String caseName, Currency currency,
+            long[] bundles, long[] remainingMinor) {
+        return priceService.getCasePrice(caseName, currency)
+                .thenCombine(priceService.getKeyPrice(currency), (caseData, keyPrice) -> {
+                    if (caseData == null || keyPrice == null) {
+                        return false;
+                    }
+                    calculate(amountsMinor, toMinorUnits(caseData.getPrice()), toMinorUnits(keyPrice), bundles,
+                            remainingMinor);
+                    return true;
+                });
+    }
+
+    /**
+     * Spočítá balíčky pro známé ceny.
+     *
+     * @param amountMinor    Částka v setinách měny.
+     * @param casePriceMinor Cena bedny v setinách měny.
+     * @param keyPriceMinor  Cena klíče v setinách měny.
+     * @return Výsledek výpočtu.
+     * @throws IllegalArgumentException Pokud je částka záporná nebo cena
+     *                                  balíčku není kladná.
+     */
+    public static BundleResult calculate(long amountMinor, long casePriceMinor, long keyPriceMinor) {
+        long bundleCost = bundleCost(casePriceMinor, keyPriceMinor);
+        if (amountMinor < 0) {
+            throw new IllegalArgumentException("Amount cannot be negative");
+        }
+        long bundles = amountMinor / bundleCost;
+        return new BundleResult(amountMinor, casePriceMinor, keyPriceMinor, bundles, amountMinor - bundles * bundleCost);
+    }
+
+    /**
+     * Dávková varianta výpočtu bez alokací: pro každou částku zapíše počet
+     * balíčků a zbytek do výstupních polí.
+     *
+     * @param amountsMinor   Částky v setinách měny.
+     * @param casePriceMinor Cena bedny v setinách měny.
+     * @param keyPriceMinor  Cena klíče v setinách měny.
+     * @param bundles        Pole pro počty balíčků.
+     * @param remainingMinor Pole pro zbytky.
+     * @throws IllegalArgumentException Pokud délky polí nesouhlasí, některá
+     *                                  částka je záporná nebo cena balíčku
+     *                                  není kladná.
+     */
+    public static void calculate(long[] amountsMinor, long casePriceMinor, long keyPriceMinor, long[] bundles,
+            long[] remainingMinor) {
+        if (bundles.length != amountsMinor.length || remainingMinor.length != amountsMinor.length) {
+            throw new IllegalArgumentException("Array lengths differ");
+        }
+        long bundleCost = bundleCost(casePriceMinor, keyPriceMinor);
+        for (int i = 0; i < amountsMinor.length; i++) {
+            long amount = amountsMinor[i];
+            if (amount < 0) {
+                throw new IllegalArgumentException("Amount cannot be negative");
+            }
+            long count = amount / bundleCost;
+            bundles[i] = count;
+            remainingMinor[i] = amount - count * bundleCost;
+        }
+    }
+
+    private static long bundleCost(long casePriceMinor, long keyPriceMinor) {
+        long bundleCost = casePriceMinor + keyPriceMinor;
+        if (casePriceMinor < 0 || keyPriceMinor < 0 || bundleCost <= 0) {
+            throw new IllegalArgumentException("Bundle cost must be positive");
+        }
+        return bundleCost;
+    }
+
+    /**
+     * Převede cenu na setiny měny se zaokrouhlením {@link RoundingMode#HALF_UP}.
+     * Vychází z nejkratšího desetinného zápisu čísla, takže např. 0.285 dá 29.
+     *
+     * @param amount Částka v měně.
+     * @return Částka v setinách měny.
+     * @throws IllegalArgumentException Pokud částka není konečné číslo.
+     */
+    public static long toMinorUnits(double amount) {
+        if (!Double.isFinite(amount)) {
+            throw new IllegalArgumentException("Amount must be finite: " + amount);
+        }
+        return BigDecimal.valueOf(amount).setScale(Constants.MINOR_UNIT_DIGITS, RoundingMode.HALF_UP)
+                .unscaledValue().longValueExact();
+    }
+
+    /**
+     * Přesně přečte částku zadanou uživatelem. Povoluje desetinnou čárku
+     * i tečku a oddělovače tisíců (mezery, nebo čárka či tečka ve skupinách
+     * po třech číslicích); víc desetinných míst se zaokrouhlí
+     * {@link RoundingMode#HALF_UP}.
+     * <p>
+     * Desetinný je poslední oddělovač; jediný druh oddělovače použitý
+     * víckrát odděluje tisíce ("1.234.567"). Exponenciální zápis se
+     * nepřijímá: {@code BigDecimal} by např. "1e50000000" před kontrolou
+     * rozsahu rozepsal na desítky milionů číslic.
+     *
+     * @param text Zadaný text, např. "1 234,50" nebo "1,234.50".
+     * @return Částka v setinách měny.
+     * @throws NumberFormatException Pokud text není platná částka nebo je mimo rozsah long.
+     */
+    public static long parseMinorUnits(String text) {
+        String compact = text.strip().replace(" ", "").replace("\u00A0", "");
+        int lastComma = compact.lastIndexOf(',');
+        int lastDot = compact.lastIndexOf('.');
+        int decimalAt = Math.max(lastComma, lastDot);
+        if (decimalAt >= 0 && (lastComma < 0 || lastDot < 0)
+                && compact.indexOf(compact.charAt(decimalAt)) != decimalAt) {
+            decimalAt = -1; // Jediný druh oddělovače použitý víckrát = oddělovač tisíců
+        }
+        String integerPart = decimalAt >= 0 ? compact.substring(0, decimalAt) : compact;
+        String fraction = decimalAt >= 0 ? compact.substring(decimalAt + 1) : "";
+        if (!AMOUNT_INTEGER_PART.matcher(integerPart).matches() || !AMOUNT_FRACTION.matcher(fraction).matches()
+                || (decimalAt >= 0 && integerPart.indexOf(compact.charAt(decimalAt)) >= 0)) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+        String digits = integerPart.replace(",", "").replace(".", "");
+        String sign = digits.startsWith("-") || digits.startsWith("+") ? digits.substring(0, 1) : "";
+        digits = digits.substring(sign.length());
+        if (digits.isEmpty() && fraction.isEmpty()) {
+            throw new NumberFormatException("Invalid amount: " + text);
+        }
+        if (digits.length() > MAX_AMOUNT_INTEGER_DIGITS) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+        try {
+            return new BigDecimal(sign + (digits.isEmpty() ? "0" : digits) + "." + fraction)
+                    .setScale(Constants.MINOR_UNIT_DIGITS, RoundingMode.HALF_UP)
+                    .unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + text);
+        }
+    }
+
+    /**
+     * Převede částku v setinách zpět na desetinné číslo pro výpis.
+     *
+     * @param amountMinor Částka v setinách měny.
+     * @return Přesná částka v měně.
+     */
+    public static BigDecimal toDecimal(long amountMinor) {
+        return BigDecimal.valueOf(amountMinor, Constants.MINOR_UNIT_DIGITS);
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.bednovac.service;
+
+/**
+ * Výsledek {@link BundleCalculator}: kolik balíčků (bedna + klíč) lze za
+ * částku koupit a kolik peněz zbude. Všechny částky jsou v setinách měny
+ * (centy, haléře), výpočet je tedy přesný.
+ */
+public final class BundleResult {
+    private final long amountMinor;
+    private final long casePriceMinor;
+    private final long keyPriceMinor;
+    private final long bundles;
+    private final long remainingMinor;
+
+    BundleResult(long amountMinor, long casePriceMinor, long keyPriceMinor, long bundles, long remainingMinor) {
+        this.amountMinor = amountMinor;
+        this.casePriceMinor = casePriceMinor;
+        this.keyPriceMinor = keyPriceMinor;
+        this.bundles = bundles;
+        this.remainingMinor = remainingMinor;
+    }
+
+    public long getAmountMinor() {
+        return amountMinor;
+    }
+
+    public long getCasePriceMinor() {
+        return casePriceMinor;
+    }
+
+    public long getKeyPriceMinor() {
+        return keyPriceMinor;
+    }
+
+    /**
+     * @return Cena jednoho balíčku (bedna + klíč).
+     */
+    public long getBundleCostMinor() {
+        return casePriceMinor + keyPriceMinor;
+    }
+
+    /**
+     * @return Počet celých balíčků (a tedy i beden a klíčů).
+     */
+    public long getBundles() {
+        return bundles;
+    }
+
+    /**
+     * @return Částka, která po nákupu balíčků zbude.
+     */
+    public long getRemainingMinor() {
+        return remainingMinor;
+    }
+
+    @Override
+    public String toString() {
+        return "BundleResult{" +
+                "amountMinor=" + amountMinor +
+                ", casePriceMinor=" + casePriceMinor +
+                ", keyPriceMinor=" + keyPriceMinor +
+                ", bundles=" + bundles +
+                ", remainingMinor=" + remainingMinor +
+                '}';
+    }
+}
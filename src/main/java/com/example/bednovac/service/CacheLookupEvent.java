@@ -0,0 +1,56 @@
+package com.example.bednovac.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR událost jednoho dotazu do cache {@link PriceService}. Dotazů je hodně,
+ * proto je událost ve výchozím stavu vypnutá a zapíná ji až nastavení
+ * {@code src/main/jfr/bednovac.jfc}.
+ */
+@Name("bednovac.CacheLookup")
+@Label("Price Cache Lookup")
+@Category({ "Bednovac", "Cache" })
+@Description("Lookup in the PriceService cache and how it was answered")
+@Enabled(false)
+@StackTrace(false)
+final class CacheLookupEvent extends Event {
+
+    static final String HIT = "HIT"; // Čerstvá data v cache
+    static final String MISS = "MISS"; // Stahuje se z API
+    static final String STALE = "STALE"; // Prošlá data v toleranční lhůtě, obnova na pozadí
+    static final String COALESCED = "COALESCED"; // Připojeno k rozpracovanému požadavku
+
+    @Label("Cache")
+    String cache;
+
+    @Label("Key")
+    String key;
+
+    @Label("Result")
+    String result;
+
+    /**
+     * Zapíše okamžitou událost. Když událost není zapnutá, nic se neformátuje
+     * a JIT alokaci odstraní.
+     *
+     * @param cache  Název cache ("case" nebo "exchange").
+     * @param key    Klíč dotazu.
+     * @param result Jedna z konstant {@link #HIT}, {@link #MISS},
+     *               {@link #STALE}, {@link #COALESCED}.
+     */
+    static void emit(String cache, Object key, String result) {
+        CacheLookupEvent event = new CacheLookupEvent();
+        if (event.isEnabled()) {
+            event.cache = cache;
+            event.key = String.valueOf(key);
+            event.result = result;
+            event.commit();
+        }
+    }
+}
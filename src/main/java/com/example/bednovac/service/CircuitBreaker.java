@@ -0,0 +1,87 @@
+package com.example.bednovac.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jednoduchý circuit breaker pro jeden host.
+ * Po daném počtu po sobě jdoucích chyb se obvod rozpojí a požadavky okamžitě
+ * selhávají (volající tak rychle použije data z cache). Po uplynutí doby
+ * vychladnutí propustí jeden zkušební požadavek; pokud uspěje, obvod se
+ * znovu spojí.
+ */
+class CircuitBreaker {
+
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+
+    /**
+     * Konstruktor circuit breakeru.
+     *
+     * @param failureThreshold Počet po sobě jdoucích chyb, po kterém se obvod rozpojí.
+     * @param openSeconds      Doba v sekundách, po kterou obvod zůstane rozpojený.
+     */
+    CircuitBreaker(int failureThreshold, int openSeconds) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = TimeUnit.SECONDS.toNanos(openSeconds);
+    }
+
+    /**
+     * Zjistí, zda lze odeslat požadavek.
+     *
+     * @return True, pokud je obvod spojený nebo pokud volající dostal
+     *         povolení ke zkušebnímu požadavku.
+     */
+    synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAtNanos >= openNanos) {
+                    state = State.HALF_OPEN; // Propustí právě jeden zkušební požadavek
+                    return true;
+                }
+                return false;
+            default:
+                return false; // Zkušební požadavek už běží
+        }
+    }
+
+    synchronized void recordSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Zaznamená odpověď 429 s hlavičkou Retry-After. Omezení rychlosti řeší
+     * prodleva podle hlavičky, nejde o výpadek hostu: počet chyb se nemění.
+     * Zkušební požadavek tím ale prokázal, že host odpovídá, obvod se spojí.
+     */
+    synchronized void recordRateLimited() {
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+        }
+    }
+
+    /**
+     * Zaznamená neúspěšný logický požadavek (po vyčerpání všech opakování).
+     */
+    synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+    }
+
+    synchronized State getState() {
+        return state;
+    }
+}
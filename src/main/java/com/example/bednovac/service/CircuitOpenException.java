@@ -0,0 +1,16 @@
+package com.example.bednovac.service;
+
+import java.io.IOException;
+
+/**
+ * Výjimka signalizující, že požadavek nebyl odeslán, protože circuit breaker
+ * pro daný host je rozpojený.
+ */
+public class CircuitOpenException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CircuitOpenException(String host) {
+        super("Circuit breaker open for host: " + host);
+    }
+}
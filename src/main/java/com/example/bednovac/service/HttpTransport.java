@@ -0,0 +1,216 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Odolná transportní vrstva pod {@link ApiClient}.
+ * <ul>
+ * <li>každý host má vlastní token bucket, aby hromadné obnovy nepřekročily
+ * rate limit Steamu nebo frankfurter.app,</li>
+ * <li>požadavky mají timeout na spojení i na celou odpověď,</li>
+ * <li>síťové chyby, HTTP 429 a 5xx se opakují s exponenciální prodlevou
+ * s jitterem; hlavička Retry-After má přednost,</li>
+ * <li>circuit breaker po opakovaných chybách požadavky na host okamžitě
+ * odmítá výjimkou {@link CircuitOpenException}, takže volající hned použije
+ * data z cache.</li>
+ * </ul>
+ */
+public class HttpTransport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpTransport.class);
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    private final HttpClient httpClient;
+    private final Map<String, HostPolicy> hostPolicies = new ConcurrentHashMap<>();
+
+    public HttpTransport() {
+        this(HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(Constants.HTTP_CONNECT_TIMEOUT_SECONDS))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build());
+    }
+
+    /**
+     * Konstruktor s vlastním HTTP klientem.
+     *
+     * @param httpClient HTTP klient, přes který se požadavky odesílají.
+     */
+    public HttpTransport(HttpClient httpClient) {
+        this.httpClient = httpClient;
+        registerHost(Constants.STEAM_HOST, Constants.STEAM_BURST, Constants.STEAM_REQUESTS_PER_MINUTE);
+        registerHost(Constants.FRANKFURTER_HOST, Constants.FRANKFURTER_BURST,
+                Constants.FRANKFURTER_REQUESTS_PER_MINUTE);
+    }
+
+    /**
+     * Nastaví limit požadavků pro daný host. Hosty bez nastaveného limitu
+     * mají jen timeouty, opakování a circuit breaker.
+     *
+     * @param host              Název hostu (např. "steamcommunity.com").
+     * @param burst             Počet požadavků, které lze odeslat naráz.
+     * @param requestsPerMinute Průměrný počet požadavků za minutu.
+     */
+    public void registerHost(String host, int burst, int requestsPerMinute) {
+        hostPolicies.put(host, new HostPolicy(new TokenBucket(burst, requestsPerMinute)));
+    }
+
+    /**
+     * Vytvoří builder požadavku s nastaveným timeoutem odpovědi.
+     *
+     * @param uri Adresa požadavku.
+     * @return Builder GET požadavku.
+     */
+    public HttpRequest.Builder newRequest(URI uri) {
+        return HttpRequest.newBuilder()
+                .uri(uri)
+                .timeout(Duration.ofSeconds(Constants.HTTP_REQUEST_TIMEOUT_SECONDS))
+                .GET();
+    }
+
+    /**
+     * Asynchronně odešle požadavek s omezením rychlosti, opakováním a
+     * circuit breakerem. Vrácená odpověď může mít i chybový stavový kód,
+     * pokud se ani po opakování nepodařilo získat úspěšnou odpověď.
+     *
+     * @param request     Požadavek.
+     * @param bodyHandler Zpracování těla odpovědi.
+     * @param <T>         Typ těla odpovědi.
+     * @return CompletableFuture s odpovědí; selže výjimkou
+     *         {@link CircuitOpenException} nebo síťovou chybou.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler) {
+        String host = request.uri().getHost();
+        HostPolicy policy = hostPolicies.computeIfAbsent(host, h -> new HostPolicy(null));
+        return attempt(request, bodyHandler, host, policy, 0);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> attempt(HttpRequest request,
+            HttpResponse.BodyHandler<T> bodyHandler, String host, HostPolicy policy, int attempt) {
+        // Circuit breaker propouští logické požadavky; opakování patří k už povolenému požadavku
+        if (attempt == 0 && !policy.breaker.allowRequest()) {
+            return CompletableFuture.failedFuture(new CircuitOpenException(host));
+        }
+
+        long waitNanos = policy.bucket != null ? policy.bucket.reserve() : 0;
+        CompletableFuture<HttpResponse<T>> sent = waitNanos > 0
+                ? delay(waitNanos).thenCompose(v -> httpClient.sendAsync(request, bodyHandler))
+                : httpClient.sendAsync(request, bodyHandler);
+
+        return sent.handle((response, error) -> {
+            Throwable cause = unwrap(error);
+            if (cause == null && !isRetryableStatus(response.statusCode())) {
+                policy.breaker.recordSuccess();
+                return CompletableFuture.completedFuture(response);
+            }
+
+            boolean retryable = cause == null || cause instanceof IOException;
+            if (!retryable || attempt >= Constants.HTTP_MAX_RETRIES) {
+                // Jedna chyba za celý logický požadavek, až po vyčerpání pokusů
+                if (cause == null && response.statusCode() == HTTP_TOO_MANY_REQUESTS
+                        && response.headers().firstValue("Retry-After").isPresent()) {
+                    policy.breaker.recordRateLimited(); // Host odpovídá, jen omezuje rychlost
+                } else {
+                    policy.breaker.recordFailure();
+                }
+                return cause != null
+                        ? CompletableFuture.<HttpResponse<T>>failedFuture(cause)
+                        : CompletableFuture.completedFuture(response);
+            }
+
+            long retryDelayMillis = retryDelayMillis(response, attempt);
+            if (response != null && response.statusCode() == HTTP_TOO_MANY_REQUESTS && policy.bucket != null) {
+                // Rate limit platí pro celý host - pozastaví i ostatní požadavky
+                policy.bucket.pause(TimeUnit.MILLISECONDS.toNanos(retryDelayMillis));
+            }
+            LOGGER.info("Retrying request to {} in {} ms (attempt {}, {})", host, retryDelayMillis, attempt + 1,
+                    cause != null ? cause : "HTTP " + response.statusCode());
+            return delay(TimeUnit.MILLISECONDS.toNanos(retryDelayMillis))
+                    .thenCompose(v -> attempt(request, bodyHandler, host, policy, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Vypočítá prodlevu před dalším pokusem. Hlavička Retry-After má
+     * přednost, jinak se použije exponenciální prodleva s náhodným jitterem.
+     */
+    private static long retryDelayMillis(HttpResponse<?> response, int attempt) {
+        if (response != null) {
+            Optional<String> retryAfter = response.headers().firstValue("Retry-After");
+            if (retryAfter.isPresent()) {
+                long millis = parseRetryAfterMillis(retryAfter.get());
+                if (millis >= 0) {
+                    return Math.min(millis, TimeUnit.SECONDS.toMillis(Constants.HTTP_MAX_RETRY_AFTER_SECONDS));
+                }
+            }
+        }
+        long ceiling = Math.min(Constants.HTTP_RETRY_MAX_DELAY_MILLIS,
+                Constants.HTTP_RETRY_BASE_DELAY_MILLIS << attempt);
+        return ThreadLocalRandom.current().nextLong(ceiling / 2, ceiling + 1);
+    }
+
+    /**
+     * Převede hodnotu hlavičky Retry-After (počet sekund nebo HTTP datum) na
+     * milisekundy.
+     *
+     * @return Prodleva v milisekundách, nebo -1, pokud hodnotu nelze přečíst.
+     */
+    static long parseRetryAfterMillis(String value) {
+        String trimmed = value.trim();
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(trimmed));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime at = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, Duration.between(ZonedDateTime.now(at.getZone()), at).toMillis());
+            } catch (DateTimeParseException ex) {
+                return -1;
+            }
+        }
+    }
+
+    private static boolean isRetryableStatus(int statusCode) {
+        return statusCode == HTTP_TOO_MANY_REQUESTS || statusCode >= 500;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static CompletableFuture<Void> delay(long nanos) {
+        return CompletableFuture.runAsync(() -> {
+        }, CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * Nastavení odolnosti pro jeden host.
+     */
+    private static class HostPolicy {
+        private final TokenBucket bucket; // null = bez omezení rychlosti
+        private final CircuitBreaker breaker = new CircuitBreaker(Constants.CIRCUIT_BREAKER_FAILURE_THRESHOLD,
+                Constants.CIRCUIT_BREAKER_OPEN_SECONDS);
+
+        HostPolicy(TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.model.Exchange;
+import com.example.bednovac.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Perzistentní úložiště cache cen beden a směnných kurzů na disku.
+ * Data se ukládají do kompaktního binárního souboru v domovském adresáři
+ * uživatele, aby aplikace po spuštění mohla hned nabídnout poslední známé
+ * ceny bez volání API (a fungovala i offline).
+ * <p>
+ * Čtení i zápis probíhají na vlastním vlákně na pozadí. Více požadavků na
+ * zápis v krátkém čase se sloučí do jednoho zápisu.
+ */
+public class PriceCacheStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriceCacheStore.class);
+
+    private static final int MAGIC = 0x42444E43; // "BDNC"
+    private static final int VERSION = 2; // Verze 2 ukládá i měnu ceny bedny
+
+    private final Path file;
+    private final ScheduledExecutorService executor;
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+    private volatile Supplier<Snapshot> pendingSnapshot; // Zdroj dat naplánovaného zápisu
+    private volatile ScheduledFuture<?> scheduledWrite; // Odložený zápis, který close() zruší
+
+    /**
+     * Konstruktor úložiště.
+     *
+     * @param file Soubor, do kterého se cache ukládá.
+     */
+    public PriceCacheStore(Path file) {
+        this.file = file;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-cache-store");
+            thread.setDaemon(true); // Nesmí bránit ukončení aplikace
+            return thread;
+        });
+    }
+
+    /**
+     * Vytvoří úložiště ve výchozím umístění v domovském adresáři uživatele.
+     *
+     * @return Úložiště cache.
+     */
+    public static PriceCacheStore defaultStore() {
+        return new PriceCacheStore(Path.of(System.getProperty("user.home"), Constants.PERSISTENT_CACHE_DIR,
+                Constants.PERSISTENT_CACHE_FILE));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Asynchronně načte uloženou cache. Pokud soubor neexistuje nebo je
+     * poškozený, vrátí prázdný snapshot.
+     *
+     * @return CompletableFuture s načtenými daty.
+     */
+    public CompletableFuture<Snapshot> loadAsync() {
+        return CompletableFuture.supplyAsync(this::load, executor);
+    }
+
+    /**
+     * Naplánuje zápis cache na disk. Data se získají až těsně před zápisem,
+     * takže se více požadavků v intervalu
+     * {@link Constants#PERSISTENT_CACHE_WRITE_DELAY_SECONDS} sloučí do jednoho.
+     *
+     * @param snapshotSupplier Funkce vracející aktuální obsah cache.
+     */
+    public void scheduleWrite(Supplier<Snapshot> snapshotSupplier) {
+        pendingSnapshot = snapshotSupplier;
+        if (!writeScheduled.compareAndSet(false, true)) {
+            return; // Zápis už je naplánovaný a zahrne i tuto změnu
+        }
+        try {
+            scheduledWrite = executor.schedule(() -> {
+                if (writeScheduled.compareAndSet(true, false)) {
+                    write(snapshotSupplier.get());
+                }
+            }, Constants.PERSISTENT_CACHE_WRITE_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            writeScheduled.set(false); // Úložiště je zavřené
+        }
+    }
+
+    /**
+     * Zavře úložiště. Naplánovaný zápis se neodkládá a provede se hned na
+     * volajícím vlákně, aby se změny neztratily při ukončení aplikace. Zápis,
+     * který už běží na pozadí, se nejdřív nechá doběhnout, aby dva zápisy
+     * nesdílely stejný dočasný soubor.
+     */
+    public void close() {
+        ScheduledFuture<?> scheduled = scheduledWrite;
+        if (scheduled != null) {
+            scheduled.cancel(false); // Běžící zápis se nepřeruší
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(Constants.PERSISTENT_WRITE_CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Price cache writer did not finish within {} s",
+                        Constants.PERSISTENT_WRITE_CLOSE_TIMEOUT_SECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Supplier<Snapshot> pending = pendingSnapshot;
+        if (writeScheduled.compareAndSet(true, false) && pending != null) {
+            write(pending.get());
+        }
+    }
+
+    private Snapshot load() {
+        Snapshot snapshot = new Snapshot();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            // Starší verze obsahují ceny stažené s chybnou měnou - zahodí se
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOGGER.warn("Ignoring price cache with unknown format: {}", file);
+                return snapshot;
+            }
+            if (in.readBoolean()) {
+                long savedAt = in.readLong();
+                Currency base = Currency.of(in.readUTF());
+                int count = in.readInt();
+                Map<Currency, Double> rates = new HashMap<>();
+                for (int i = 0; i < count; i++) {
+                    String code = in.readUTF();
+                    double rate = in.readDouble();
+                    rates.put(Currency.of(code), rate); // Měny uložené z minulého běhu se znovu zaregistrují
+                }
+                snapshot.exchange = new Stored<>(new Exchange(base, rates), savedAt);
+            }
+            int caseCount = in.readInt();
+            for (int i = 0; i < caseCount; i++) {
+                String name = in.readUTF();
+                double price = in.readDouble();
+                long savedAt = in.readLong();
+                Currency currency = Currency.of(in.readUTF());
+                snapshot.cases.add(new Stored<>(new Case(name, price, currency), savedAt));
+            }
+            LOGGER.info("Loaded {} cached case prices from {}", caseCount, file);
+        } catch (NoSuchFileException e) {
+            LOGGER.debug("No persistent price cache found at {}", file);
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Failed to read persistent price cache: {}", file, e);
+            return new Snapshot();
+        }
+        return snapshot;
+    }
+
+    private void write(Snapshot snapshot) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                Stored<Exchange> exchange = snapshot.exchange;
+                out.writeBoolean(exchange != null);
+                if (exchange != null) {
+                    Exchange rates = exchange.data;
+                    out.writeLong(exchange.savedAtMillis);
+                    out.writeUTF(rates.getBaseCurrency().name());
+                    List<Currency> known = new ArrayList<>();
+                    for (Currency currency : Currency.values()) {
+                        if (currency != rates.getBaseCurrency() && rates.hasRate(currency)) {
+                            known.add(currency);
+                        }
+                    }
+                    out.writeInt(known.size());
+                    for (Currency currency : known) {
+                        out.writeUTF(currency.name());
+                        out.writeDouble(rates.getRate(currency));
+                    }
+                }
+                out.writeInt(snapshot.cases.size());
+                for (Stored<Case> stored : snapshot.cases) {
+                    out.writeUTF(stored.data.getName());
+                    out.writeDouble(stored.data.getPrice());
+                    out.writeLong(stored.savedAtMillis);
+                    out.writeUTF(stored.data.getCurrency().getCode());
+                }
+            }
+            // Atomická výměna, aby pád aplikace během zápisu nepoškodil předchozí cache
+            try {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.debug("Persisted {} case prices to {}", snapshot.cases.size(), file);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to write persistent price cache: {}", file, e);
+        }
+    }
+
+    /**
+     * Obsah cache k uložení nebo načtený z disku.
+     */
+    public static class Snapshot {
+        private final List<Stored<Case>> cases = new ArrayList<>();
+        private Stored<Exchange> exchange;
+
+        public List<Stored<Case>> getCases() {
+            return cases;
+        }
+
+        public Stored<Exchange> getExchange() {
+            return exchange;
+        }
+
+        public void addCase(Case casePrice, long savedAtMillis) {
+            cases.add(new Stored<>(casePrice, savedAtMillis));
+        }
+
+        public void setExchange(Exchange exchange, long savedAtMillis) {
+            this.exchange = new Stored<>(exchange, savedAtMillis);
+        }
+    }
+
+    /**
+     * Uložená hodnota spolu s časem, kdy byla stažena z API.
+     *
+     * @param <T> Typ uložených dat.
+     */
+    public static class Stored<T> {
+        private final T data;
+        private final long savedAtMillis;
+
+        Stored(T data, long savedAtMillis) {
+            this.data = data;
+            this.savedAtMillis = savedAtMillis;
+        }
+
+        public T getData() {
+            return data;
+        }
+
+        public long getSavedAtMillis() {
+            return savedAtMillis;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.model.Exchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+
+/**
+ * Posluchač {@link PriceService}, který každou staženou cenu bedny a každé
+ * stažené kurzy připíše do {@link PriceHistoryStore}. Ukládá se i cena, která
+ * se nezměnila - historie tak odpovídá skutečným časům obnovy.
+ */
+public class PriceHistoryRecorder implements PriceUpdateListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriceHistoryRecorder.class);
+
+    private final PriceHistoryStore historyStore;
+
+    /**
+     * Konstruktor posluchače.
+     *
+     * @param historyStore Úložiště, do kterého se vzorky zapisují.
+     */
+    public PriceHistoryRecorder(PriceHistoryStore historyStore) {
+        this.historyStore = historyStore;
+    }
+
+    @Override
+    public void onCasePriceUpdated(Case previous, Case current, boolean changed) {
+        append(PriceHistoryStore.caseSeries(current.getName(), current.getCurrency()), current.getPrice());
+    }
+
+    @Override
+    public void onExchangeUpdated(Exchange previous, Exchange current, boolean changed) {
+        Currency base = current.getBaseCurrency();
+        for (Currency currency : current.getAvailableCurrencies()) {
+            if (currency != base) {
+                append(PriceHistoryStore.exchangeSeries(base, currency), current.getRate(currency));
+            }
+        }
+    }
+
+    private void append(String series, double value) {
+        try {
+            historyStore.append(series, System.currentTimeMillis(), value);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to append price history for: {}", series, e);
+        } catch (IllegalStateException e) {
+            LOGGER.debug("Price history store already closed, dropping sample for: {}", series);
+        }
+    }
+}
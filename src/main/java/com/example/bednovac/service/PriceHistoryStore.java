@@ -0,0 +1,506 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vestavěné úložiště historie cen beden a směnných kurzů (append-only
+ * časové řady).
+ * <p>
+ * Každá řada (např. cena jedné bedny v jedné měně) má vlastní adresář
+ * rozdělený na segmenty pevné velikosti, které se čtou a zapisují přes
+ * paměťově mapované soubory, takže historie nezabírá místo na haldě.
+ * Vzorky jsou uložené kompaktně: čas jako varint rozdíl od předchozího
+ * vzorku, hodnota jako pevná desetinná čárka ({@code long}) kódovaná jako
+ * zigzag varint rozdíl od předchozí hodnoty. Typický 15minutový vzorek tak
+ * zabere 4-6 bajtů.
+ * <p>
+ * Hlavička segmentu obsahuje souhrn (min, max, součet, počet), takže dotaz
+ * na statistiky období dekóduje jen segmenty na jeho okrajích; segmenty celé
+ * uvnitř období se započítají z hlavičky.
+ */
+public class PriceHistoryStore implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriceHistoryStore.class);
+
+    private static final int MAGIC = 0x42444E48; // "BDNH"
+    private static final int VERSION = 1;
+    private static final double FIXED_POINT_SCALE = 1_000_000; // Hodnoty s přesností na 6 desetinných míst
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    // Rozložení hlavičky segmentu (offsety v bajtech)
+    private static final int OFFSET_START_MILLIS = 8;
+    private static final int OFFSET_LAST_MILLIS = 16;
+    private static final int OFFSET_LAST_VALUE = 24;
+    private static final int OFFSET_MIN = 32;
+    private static final int OFFSET_MAX = 40;
+    private static final int OFFSET_SUM = 48;
+    private static final int OFFSET_COUNT = 56;
+    private static final int OFFSET_WRITE_POS = 60;
+    private static final int HEADER_SIZE = 64;
+
+    private static final int MAX_SAMPLE_BYTES = 20; // Dva varinty po nejvýše 10 bajtech
+
+    private final Path directory;
+    private final Map<String, Series> seriesByName = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    /**
+     * Konstruktor úložiště.
+     *
+     * @param directory Adresář, ve kterém jsou uložené časové řady.
+     */
+    public PriceHistoryStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Vytvoří úložiště ve výchozím umístění v domovském adresáři uživatele.
+     *
+     * @return Úložiště historie.
+     */
+    public static PriceHistoryStore defaultStore() {
+        return new PriceHistoryStore(Path.of(System.getProperty("user.home"), Constants.PERSISTENT_CACHE_DIR,
+                Constants.PRICE_HISTORY_DIR));
+    }
+
+    /**
+     * Vrátí název řady s cenou bedny v dané měně.
+     *
+     * @param caseName Název bedny.
+     * @param currency Měna ceny.
+     * @return Název řady.
+     */
+    public static String caseSeries(String caseName, Currency currency) {
+        return "case:" + currency.getCode() + ":" + caseName;
+    }
+
+    /**
+     * Vrátí název řady se směnným kurzem.
+     *
+     * @param base     Základní měna.
+     * @param currency Cílová měna.
+     * @return Název řady.
+     */
+    public static String exchangeSeries(Currency base, Currency currency) {
+        return "fx:" + base.getCode() + ":" + currency.getCode();
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Připojí vzorek na konec řady. Časy vzorků v řadě musí být neklesající;
+     * starší čas (např. po posunu systémových hodin) se zarovná na čas
+     * posledního vzorku.
+     *
+     * @param seriesName      Název řady.
+     * @param timestampMillis Čas vzorku v milisekundách od epochy.
+     * @param value           Hodnota vzorku.
+     * @throws IOException Pokud se nepodaří zapsat segment.
+     */
+    public void append(String seriesName, long timestampMillis, double value) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Price history store is closed");
+        }
+        if (!Double.isFinite(value)) {
+            throw new IllegalArgumentException("Value must be finite: " + value);
+        }
+        series(seriesName).append(timestampMillis, Math.round(value * FIXED_POINT_SCALE));
+    }
+
+    /**
+     * Vrátí statistiky řady za zadané období (včetně krajních časů).
+     *
+     * @param seriesName Název řady.
+     * @param fromMillis Začátek období.
+     * @param toMillis   Konec období.
+     * @return Statistiky, nebo {@link PriceStats#EMPTY}, pokud v období nejsou
+     *         žádné vzorky.
+     * @throws IOException Pokud se nepodaří přečíst segment.
+     */
+    public PriceStats stats(String seriesName, long fromMillis, long toMillis) throws IOException {
+        if (fromMillis > toMillis) {
+            return PriceStats.EMPTY;
+        }
+        return series(seriesName).stats(fromMillis, toMillis);
+    }
+
+    /**
+     * Vrátí statistiky řady za posledních N dní.
+     *
+     * @param seriesName Název řady.
+     * @param days       Počet dní.
+     * @return Statistiky období.
+     * @throws IOException Pokud se nepodaří přečíst segment.
+     */
+    public PriceStats statsForLastDays(String seriesName, int days) throws IOException {
+        long now = System.currentTimeMillis();
+        return stats(seriesName, now - TimeUnit.DAYS.toMillis(days), now);
+    }
+
+    /**
+     * Zapíše rozpracované segmenty na disk a uvolní je. Další zápisy už nejsou
+     * možné.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Series series : seriesByName.values()) {
+            series.close();
+        }
+    }
+
+    private Series series(String seriesName) throws IOException {
+        Series series = seriesByName.get(seriesName);
+        if (series != null) {
+            return series;
+        }
+        try {
+            return seriesByName.computeIfAbsent(seriesName, name -> {
+                try {
+                    return new Series(directory.resolve(URLEncoder.encode(name, StandardCharsets.UTF_8)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Jedna časová řada: seznam segmentů seřazených podle času. Zapisuje se
+     * jen do posledního (aktivního) segmentu.
+     */
+    private static final class Series {
+        private final Path directory;
+        private final List<Segment> segments = new ArrayList<>();
+        private Segment active; // Namapovaný pro zápis, null dokud se nezapisuje
+        private int nextIndex; // Pořadové číslo souboru dalšího segmentu
+
+        Series(Path directory) throws IOException {
+            this.directory = directory;
+            if (!Files.isDirectory(directory)) {
+                return; // Řada zatím neexistuje, adresář se vytvoří při prvním zápisu
+            }
+            List<Path> files = new ArrayList<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+                stream.forEach(files::add);
+            }
+            files.sort(Comparator.comparing(path -> path.getFileName().toString()));
+            for (Path file : files) {
+                // Za nejvyšším číslem, i u neplatných souborů; čísla nemusí jít po sobě (smazaný segment)
+                nextIndex = Math.max(nextIndex, segmentIndex(file) + 1);
+                Segment segment = Segment.open(file);
+                if (segment != null) {
+                    segments.add(segment);
+                }
+            }
+        }
+
+        /**
+         * @return Pořadové číslo segmentu z názvu souboru, nebo -1 pro jiný název.
+         */
+        private static int segmentIndex(Path file) {
+            String name = file.getFileName().toString();
+            try {
+                return Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        synchronized void append(long timestampMillis, long value) throws IOException {
+            Segment segment = active;
+            if (segment == null && !segments.isEmpty()) {
+                segment = segments.get(segments.size() - 1);
+                segment.mapForWrite();
+                active = segment;
+            }
+            if (segment != null && timestampMillis < segment.lastMillis) {
+                timestampMillis = segment.lastMillis;
+            }
+            if (segment == null || !segment.hasRoom()
+                    || timestampMillis - segment.startMillis >= TimeUnit.DAYS.toMillis(Constants.PRICE_HISTORY_SEGMENT_DAYS)) {
+                if (segment != null) {
+                    segment.release();
+                }
+                segment = Segment.create(directory.resolve(String.format("%08d%s", nextIndex++, SEGMENT_SUFFIX)),
+                        timestampMillis);
+                segments.add(segment);
+                active = segment;
+            }
+            segment.append(timestampMillis, value);
+        }
+
+        synchronized PriceStats stats(long fromMillis, long toMillis) throws IOException {
+            Accumulator accumulator = new Accumulator();
+            for (Segment segment : segments) {
+                if (segment.count == 0 || segment.lastMillis < fromMillis || segment.startMillis > toMillis) {
+                    continue;
+                }
+                if (segment.startMillis >= fromMillis && segment.lastMillis <= toMillis) {
+                    accumulator.merge(segment.count, segment.min, segment.max, segment.sum); // Jen z hlavičky
+                } else {
+                    segment.scan(fromMillis, toMillis, accumulator); // Okraj období - dekódovat vzorky
+                }
+            }
+            return accumulator.toStats();
+        }
+
+        synchronized void close() {
+            if (active != null) {
+                active.release();
+                active = null;
+            }
+        }
+    }
+
+    /**
+     * Jeden segment řady. Souhrn z hlavičky je zrcadlený na haldě, aby dotazy
+     * nemusely segment mapovat; data se mapují jen při zápisu nebo dekódování.
+     */
+    private static final class Segment {
+        private final Path file;
+        private long startMillis;
+        private long lastMillis;
+        private long lastValue;
+        private long min;
+        private long max;
+        private long sum;
+        private int count;
+        private int writePos;
+        private MappedByteBuffer buffer; // Jen u aktivního segmentu
+
+        private Segment(Path file) {
+            this.file = file;
+        }
+
+        /**
+         * Vytvoří nový prázdný segment začínající daným časem.
+         */
+        static Segment create(Path file, long startMillis) throws IOException {
+            Files.createDirectories(file.getParent());
+            Segment segment = new Segment(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                segment.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Constants.PRICE_HISTORY_SEGMENT_BYTES);
+            }
+            segment.startMillis = startMillis;
+            segment.lastMillis = startMillis;
+            segment.min = Long.MAX_VALUE;
+            segment.max = Long.MIN_VALUE;
+            segment.writePos = HEADER_SIZE;
+            segment.buffer.putInt(0, MAGIC);
+            segment.buffer.putInt(4, VERSION);
+            segment.buffer.putLong(OFFSET_START_MILLIS, startMillis);
+            segment.writeHeader();
+            return segment;
+        }
+
+        /**
+         * Načte hlavičku existujícího segmentu (bez mapování dat).
+         *
+         * @return Segment, nebo null, pokud soubor není platný segment.
+         */
+        static Segment open(Path file) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                while (header.hasRemaining() && channel.read(header) >= 0) {
+                    // Čte, dokud není načtená celá hlavička nebo konec souboru
+                }
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                LOGGER.warn("Ignoring invalid price history segment: {}", file);
+                return null;
+            }
+            Segment segment = new Segment(file);
+            segment.startMillis = header.getLong(OFFSET_START_MILLIS);
+            segment.lastMillis = header.getLong(OFFSET_LAST_MILLIS);
+            segment.lastValue = header.getLong(OFFSET_LAST_VALUE);
+            segment.min = header.getLong(OFFSET_MIN);
+            segment.max = header.getLong(OFFSET_MAX);
+            segment.sum = header.getLong(OFFSET_SUM);
+            segment.count = header.getInt(OFFSET_COUNT);
+            segment.writePos = header.getInt(OFFSET_WRITE_POS);
+            return segment;
+        }
+
+        /**
+         * Namapuje segment pro další zápis. Souhrn se přepočítá z dat, aby byl
+         * konzistentní i po pádu aplikace uprostřed zápisu hlavičky.
+         */
+        void mapForWrite() throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            }
+            Accumulator accumulator = new Accumulator();
+            ByteBuffer data = buffer.duplicate();
+            data.position(HEADER_SIZE);
+            long time = startMillis;
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                time += getVarLong(data);
+                value += decodeZigZag(getVarLong(data));
+                accumulator.add(value);
+            }
+            lastMillis = time;
+            lastValue = value;
+            min = accumulator.min;
+            max = accumulator.max;
+            sum = accumulator.sum;
+            writePos = data.position();
+            writeHeader();
+        }
+
+        boolean hasRoom() {
+            return writePos + MAX_SAMPLE_BYTES <= buffer.capacity();
+        }
+
+        void append(long timestampMillis, long value) {
+            int pos = putVarLong(buffer, writePos, timestampMillis - lastMillis);
+            pos = putVarLong(buffer, pos, encodeZigZag(value - lastValue));
+            lastMillis = timestampMillis;
+            lastValue = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+            writePos = pos;
+            writeHeader();
+        }
+
+        /**
+         * Dekóduje vzorky segmentu a započítá ty, které leží v období.
+         */
+        void scan(long fromMillis, long toMillis, Accumulator accumulator) throws IOException {
+            ByteBuffer data;
+            if (buffer != null) {
+                data = buffer.duplicate();
+            } else {
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    data = channel.map(FileChannel.MapMode.READ_ONLY, 0, writePos);
+                }
+            }
+            data.position(HEADER_SIZE);
+            long time = startMillis;
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                time += getVarLong(data);
+                value += decodeZigZag(getVarLong(data));
+                if (time > toMillis) {
+                    break; // Vzorky jsou seřazené podle času
+                }
+                if (time >= fromMillis) {
+                    accumulator.add(value);
+                }
+            }
+        }
+
+        /**
+         * Zapíše souhrn do hlavičky. Počet vzorků a pozice zápisu se zapisují
+         * až po datech, takže nedokončený vzorek se po pádu ignoruje.
+         */
+        private void writeHeader() {
+            buffer.putLong(OFFSET_LAST_MILLIS, lastMillis);
+            buffer.putLong(OFFSET_LAST_VALUE, lastValue);
+            buffer.putLong(OFFSET_MIN, min);
+            buffer.putLong(OFFSET_MAX, max);
+            buffer.putLong(OFFSET_SUM, sum);
+            buffer.putInt(OFFSET_WRITE_POS, writePos);
+            buffer.putInt(OFFSET_COUNT, count);
+        }
+
+        /**
+         * Zapíše data na disk a uvolní mapování.
+         */
+        void release() {
+            if (buffer != null) {
+                buffer.force();
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * Průběžný výpočet statistik v pevné desetinné čárce.
+     */
+    private static final class Accumulator {
+        private long count;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private long sum;
+
+        void add(long value) {
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+        }
+
+        void merge(long otherCount, long otherMin, long otherMax, long otherSum) {
+            count += otherCount;
+            min = Math.min(min, otherMin);
+            max = Math.max(max, otherMax);
+            sum += otherSum;
+        }
+
+        PriceStats toStats() {
+            if (count == 0) {
+                return PriceStats.EMPTY;
+            }
+            return new PriceStats(count, min / FIXED_POINT_SCALE, max / FIXED_POINT_SCALE,
+                    sum / FIXED_POINT_SCALE / count);
+        }
+    }
+
+    private static int putVarLong(ByteBuffer buffer, int pos, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put(pos++, (byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put(pos++, (byte) value);
+        return pos;
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private static long encodeZigZag(long value) {
+        return (value << 1) ^ (value >> 63); // Malé záporné rozdíly -> malá kladná čísla
+    }
+
+    private static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Služba, která na pozadí udržuje ceny sledovaných beden a směnné kurzy
+ * v cache {@link PriceService} čerstvé, aby kliknutí v UI téměř vždy trefilo
+ * teplou cache.
+ * <p>
+ * Interval obnovy je adaptivní: bedny, které uživatel často vybírá, se
+ * obnovují častěji (až po {@link Constants#REFRESH_MIN_INTERVAL_MINUTES}),
+ * málo používané méně často (nejvýše po
+ * {@link Constants#REFRESH_MAX_INTERVAL_MINUTES}). Pokud API vrací chyby,
+ * plánovač exponenciálně prodlužuje prodlevu mezi koly.
+ * <p>
+ * Ceny se obnovují v měně, kterou má uživatel právě zvolenou
+ * ({@link #setCurrency(Currency)}).
+ */
+public class PriceRefreshScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriceRefreshScheduler.class);
+
+    private final PriceService priceService;
+    private final List<String> trackedCases;
+    private final Map<String, Popularity> popularity = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+
+    private volatile boolean running;
+    private volatile Currency currency = Currency.USD;
+    private int backoffLevel; // Mění se jen na vlákně plánovače
+
+    /**
+     * Konstruktor plánovače.
+     *
+     * @param priceService Služba, jejíž cache se má udržovat čerstvá.
+     * @param trackedCases Názvy sledovaných beden.
+     */
+    public PriceRefreshScheduler(PriceService priceService, Collection<String> trackedCases) {
+        this.priceService = priceService;
+        this.trackedCases = List.copyOf(trackedCases);
+        for (String caseName : this.trackedCases) {
+            popularity.put(caseName, new Popularity());
+        }
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "price-refresh-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Spustí obnovu na pozadí. Nejprve jedním dávkovým voláním zahřeje cache
+     * pro všechny sledované bedny a kurzy, poté pravidelně obnovuje ceny,
+     * kterým vypršel jejich interval.
+     */
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        LOGGER.info("Starting background price refresh for {} cases.", trackedCases.size());
+        priceService.getExchange();
+        priceService.getCasePrices(trackedCases, currency)
+                .whenComplete((prices, e) -> scheduleNextTick(Constants.REFRESH_TICK_SECONDS));
+    }
+
+    /**
+     * Zastaví obnovu na pozadí.
+     */
+    public void stop() {
+        running = false;
+        executor.shutdownNow();
+    }
+
+    /**
+     * Nastaví měnu, ve které se mají ceny udržovat čerstvé. Ceny v nové měně
+     * se hned zahřejí, aby první výpočet nemusel čekat na síť.
+     *
+     * @param currency Měna zvolená uživatelem.
+     */
+    public void setCurrency(Currency currency) {
+        if (currency == null || currency == this.currency) {
+            return;
+        }
+        this.currency = currency;
+        if (running) {
+            priceService.getCasePrices(trackedCases, currency);
+        }
+    }
+
+    /**
+     * Zaznamená, že uživatel vybral bednu. Často vybírané bedny se obnovují
+     * častěji.
+     *
+     * @param caseName Název vybrané bedny.
+     */
+    public void recordSelection(String caseName) {
+        Popularity entry = popularity.get(caseName);
+        if (entry != null) {
+            entry.increment();
+        }
+    }
+
+    /**
+     * Vrátí aktuální interval obnovy pro danou bednu.
+     *
+     * @param caseName Název bedny.
+     * @return Interval obnovy.
+     */
+    public Duration getRefreshInterval(String caseName) {
+        Popularity entry = popularity.get(caseName);
+        double score = entry != null ? entry.score() : 0;
+        long maxMillis = TimeUnit.MINUTES.toMillis(Constants.REFRESH_MAX_INTERVAL_MINUTES);
+        long minMillis = TimeUnit.MINUTES.toMillis(Constants.REFRESH_MIN_INTERVAL_MINUTES);
+        // Každý "bod" oblíbenosti zkrátí interval; nejoblíbenější bedny narazí na minimum
+        long interval = (long) (maxMillis / (1.0 + score));
+        return Duration.ofMillis(Math.max(minMillis, interval));
+    }
+
+    private void scheduleNextTick(long delaySeconds) {
+        if (!running) {
+            return;
+        }
+        try {
+            executor.schedule(this::tick, delaySeconds, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Plánovač byl mezitím zastaven
+        }
+    }
+
+    /**
+     * Jedno kolo obnovy. Další kolo se naplánuje vždy, i když kolo skončí
+     * výjimkou: {@link ScheduledExecutorService} by ji tiše spolkl a obnova
+     * na pozadí by se natrvalo zastavila.
+     */
+    private void tick() {
+        try {
+            refreshDue();
+        } catch (RuntimeException e) {
+            backoffLevel = Math.min(backoffLevel + 1, Constants.REFRESH_MAX_BACKOFF_LEVEL);
+            LOGGER.warn("Background refresh tick failed, backing off to level {}", backoffLevel, e);
+            scheduleNextTick(nextDelaySeconds());
+        }
+    }
+
+    /**
+     * Zjistí, kterým bedám vypršel interval, a obnoví je jedním dávkovým
+     * voláním. Naplánuje další kolo, pokud nevyhodí výjimku.
+     */
+    private void refreshDue() {
+        Currency refreshCurrency = currency;
+        List<String> due = new ArrayList<>();
+        for (String caseName : trackedCases) {
+            Duration age = priceService.getCasePriceAge(caseName, refreshCurrency);
+            if (age == null || age.compareTo(getRefreshInterval(caseName)) >= 0) {
+                due.add(caseName);
+            }
+            Popularity entry = popularity.get(caseName);
+            if (entry != null) {
+                entry.decay();
+            }
+        }
+
+        Duration exchangeAge = priceService.getExchangeAge();
+        if (exchangeAge == null || exchangeAge.toMinutes() >= Constants.EXCHANGE_RATE_CACHE_EXPIRY_MINUTES / 2) {
+            priceService.refreshExchange();
+        }
+
+        if (due.isEmpty()) {
+            scheduleNextTick(nextDelaySeconds());
+            return;
+        }
+
+        LOGGER.debug("Refreshing {} case prices in background.", due.size());
+        priceService.refreshCasePrices(due, refreshCurrency)
+                .whenCompleteAsync((Map<String, Case> fetched, Throwable e) -> {
+                    try {
+                        int failed = e != null || fetched == null ? due.size() : due.size() - fetched.size();
+                        if (failed > 0) {
+                            backoffLevel = Math.min(backoffLevel + 1, Constants.REFRESH_MAX_BACKOFF_LEVEL);
+                            LOGGER.warn("Background refresh failed for {} cases, backing off to level {}",
+                                    failed, backoffLevel, e);
+                        } else {
+                            backoffLevel = 0;
+                        }
+                    } finally {
+                        scheduleNextTick(nextDelaySeconds());
+                    }
+                }, executor);
+    }
+
+    private long nextDelaySeconds() {
+        return Constants.REFRESH_TICK_SECONDS << backoffLevel; // Exponenciální prodleva při chybách
+    }
+
+    /**
+     * Oblíbenost bedny - počet výběrů, který postupně vyhasíná, aby se
+     * plánovač přizpůsobil aktuálnímu chování uživatele.
+     */
+    private static class Popularity {
+        private double score;
+
+        synchronized void increment() {
+            score += 1.0;
+        }
+
+        synchronized void decay() {
+            score *= Constants.REFRESH_POPULARITY_DECAY;
+        }
+
+        synchronized double score() {
+            return score;
+        }
+    }
+}
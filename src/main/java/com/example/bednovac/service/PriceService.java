@@ -1,130 +1,931 @@
 package com.example.bednovac.service;
 
+import com.example.bednovac.metrics.CacheStats;
+import com.example.bednovac.metrics.MetricsRegistry;
 import com.example.bednovac.model.Case;
 import com.example.bednovac.model.Exchange;
 import com.example.bednovac.model.Currency;
 import com.example.bednovac.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
-import java.util.Collections;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.logging.Level;
-import java.util.logging.Logger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Služba pro získávání cen beden a směnných kurzů.
  * Tato třída spravuje cachování dat, aby se minimalizoval počet volání
  * externího API.
+ * <p>
+ * Cache ukládá přímo CompletableFuture s výsledkem, takže při souběžném
+ * výpadku cache proběhne jen jedno volání API a všichni čekající sdílí jeho
+ * výsledek. Cache cen beden je omezena velikostí a při překročení odstraňuje
+ * nejdéle nepoužitou položku (LRU).
+ * <p>
+ * V režimu stale-while-revalidate se expirovaná položka, která je stále
+ * v toleranční lhůtě, vrátí okamžitě a na pozadí se spustí její obnova.
+ * O výsledku obnovy se dozví registrovaní {@link PriceUpdateListener}.
+ * <p>
+ * Pod pamětí leží perzistentní vrstva {@link PriceCacheStore}. Při startu se
+ * na pozadí načtou poslední známé ceny a kurzy (včetně jejich stáří), takže
+ * první dotaz nemusí čekat na síť. Každá nově stažená data se na pozadí
+ * zapíší zpět na disk.
  */
 public class PriceService {
-    private static final Logger LOGGER = Logger.getLogger(PriceService.class.getName());
+    private static final Logger LOGGER = LoggerFactory.getLogger(PriceService.class);
 
     private final ApiClient apiClient;
 
-    private final Map<String, CacheEntry<Case>> casePriceCache = Collections.synchronizedMap(new HashMap<>());
+    // Klíčem je dvojice (bedna, měna) - ceny v různých měnách se cachují samostatně
+    private final ConcurrentHashMap<CaseKey, CacheEntry<Case>> casePriceCache = new ConcurrentHashMap<>();
 
-    private CacheEntry<Exchange> exchangeCache;
+    private final AtomicReference<CacheEntry<Exchange>> exchangeCache = new AtomicReference<>();
+
+    // Seznam měn se během běhu aplikace nemění - stahuje se nejvýše jednou
+    private final AtomicReference<CompletableFuture<List<Currency>>> currencies = new AtomicReference<>();
+
+    // Logické hodiny pro LRU - každý přístup do cache dostane vyšší číslo
+    private final AtomicLong accessClock = new AtomicLong();
+
+    private final List<PriceUpdateListener> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile boolean staleWhileRevalidate = Constants.STALE_WHILE_REVALIDATE;
+
+    private final PriceCacheStore cacheStore;
+
+    // Dokončí se po načtení perzistentní cache do paměti
+    private final CompletableFuture<Void> persistentCacheLoaded;
+
+    // Stále zapnuté čítače dotazů do cache (sdílené všemi instancemi služby)
+    private final CacheStats caseStats = MetricsRegistry.getDefault().cache("case");
+    private final CacheStats exchangeStats = MetricsRegistry.getDefault().cache("exchange");
 
     public PriceService(ApiClient apiClient) {
+        this(apiClient, PriceCacheStore.defaultStore());
+    }
+
+    /**
+     * Konstruktor služby s vlastním perzistentním úložištěm.
+     *
+     * @param apiClient  Klient pro volání API.
+     * @param cacheStore Perzistentní úložiště cache, nebo null pro čistě
+     *                   in-memory cache.
+     */
+    public PriceService(ApiClient apiClient, PriceCacheStore cacheStore) {
         this.apiClient = apiClient;
+        this.cacheStore = cacheStore;
+        caseStats.setEntries(casePriceCache::size); // Počet položek ukazuje naposledy vytvořená služba
+        exchangeStats.setEntries(() -> exchangeCache.get() != null ? 1 : 0);
+        if (cacheStore == null) {
+            this.persistentCacheLoaded = CompletableFuture.completedFuture(null);
+        } else {
+            this.persistentCacheLoaded = cacheStore.loadAsync()
+                    .thenAccept(this::restoreSnapshot)
+                    .exceptionally(e -> {
+                        LOGGER.warn("Failed to restore persistent price cache.", e);
+                        return null;
+                    });
+        }
     }
 
     /**
-     * Získá cenu bedny (Case) podle jejího názvu.
-     * Pokud je cena uložena v cache a je validní, vrátí ji z cache.
-     * Jinak ji stáhne z API a uloží do cache.
+     * Zapne nebo vypne režim stale-while-revalidate.
+     *
+     * @param staleWhileRevalidate True, pokud se mají expirovaná data
+     *                             v toleranční lhůtě vracet okamžitě a
+     *                             obnovovat na pozadí.
+     */
+    public void setStaleWhileRevalidate(boolean staleWhileRevalidate) {
+        this.staleWhileRevalidate = staleWhileRevalidate;
+    }
+
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * Zaregistruje posluchače, který bude informován o nově stažených cenách
+     * a kurzech.
+     *
+     * @param listener Posluchač změn.
+     */
+    public void addPriceUpdateListener(PriceUpdateListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Odregistruje dříve přidaného posluchače.
+     *
+     * @param listener Posluchač změn.
+     */
+    public void removePriceUpdateListener(PriceUpdateListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Vrátí měnu, ve které se cena bedny stahuje ze Steamu pro zobrazení
+     * v dané měně. Měny podporované Steamem se stahují přímo, ostatní v USD
+     * a převádí se přes směnné kurzy.
+     *
+     * @param currency Měna, ve které uživatel cenu potřebuje.
+     * @return Měna, ve které je cena uložena v cache.
+     */
+    public Currency getPricingCurrency(Currency currency) {
+        return ApiClient.supportsCurrency(currency) ? currency : Currency.USD;
+    }
+
+    /**
+     * Získá cenu bedny (Case) v USD podle jejího názvu.
      *
      * @param caseName Název bedny.
      * @return CompletableFuture s objektem Case (obsahujícím cenu).
+     * @see #getCasePrice(String, Currency)
      */
     public CompletableFuture<Case> getCasePrice(String caseName) {
-        CacheEntry<Case> cachedEntry = casePriceCache.get(caseName);
-        if (cachedEntry != null && !cachedEntry.data.getName().isEmpty()
-                && !isCacheExpired(cachedEntry.timestamp, Constants.CASE_CACHE_EXPIRY_MINUTES)) {
-            LOGGER.log(Level.INFO, "Returning cached price for case: " + caseName);
-            return CompletableFuture.completedFuture(cachedEntry.data);
-        }
-
-        LOGGER.info("Fetching case price from API for case: " + caseName);
-        return apiClient.fetchCasePrice(caseName)
-                .thenApply(casePrice -> {
-                    if (casePrice != null) {
-                        casePriceCache.put(caseName, new CacheEntry<>(casePrice, LocalDateTime.now().plusMinutes(10)));
-                        LOGGER.log(Level.INFO, "Cached price for case: " + caseName);
-                    } else {
-                        LOGGER.log(Level.WARNING, "Failed to fetch case price for: " + caseName);
+        return getCasePrice(caseName, Currency.USD);
+    }
+
+    /**
+     * Získá cenu bedny (Case) v zadané měně.
+     * Pokud Steam měnu podporuje, cena se stáhne přímo v ní a v cache je
+     * uložena samostatně pro každou dvojici (bedna, měna). Jinak se použije
+     * cena v USD a převede se přes směnné kurzy z cache.
+     *
+     * @param caseName Název bedny.
+     * @param currency Měna ceny.
+     * @return CompletableFuture s objektem Case v zadané měně, nebo null, pokud
+     *         cenu nebo kurz nelze získat.
+     */
+    public CompletableFuture<Case> getCasePrice(String caseName, Currency currency) {
+        Currency pricingCurrency = getPricingCurrency(currency);
+        if (pricingCurrency == currency) {
+            return getCachedCasePrice(new CaseKey(caseName, currency));
+        }
+        return getCachedCasePrice(new CaseKey(caseName, pricingCurrency))
+                .thenCombine(getExchange(), (casePrice, exchange) -> convertCase(casePrice, exchange, currency));
+    }
+
+    /**
+     * Získá cenu bedny v měně podporované Steamem.
+     * Pokud je cena uložena v cache a je validní, vrátí ji z cache.
+     * Pokud se cena právě stahuje, vrátí rozpracovaný požadavek.
+     * Jinak ji stáhne z API a uloží do cache.
+     *
+     * @param key Bedna a měna.
+     * @return CompletableFuture s objektem Case (obsahujícím cenu).
+     */
+    private CompletableFuture<Case> getCachedCasePrice(CaseKey key) {
+        if (!persistentCacheLoaded.isDone()) {
+            // Čtení z disku je rychlejší než síť - počkáme na něj (bez blokování vlákna)
+            return persistentCacheLoaded.thenCompose(v -> getCachedCasePrice(key));
+        }
+        CacheEntry<Case> cachedEntry = casePriceCache.get(key);
+        if (cachedEntry != null && cachedEntry.isUsable(Constants.CASE_CACHE_EXPIRY_MINUTES)) {
+            cachedEntry.touch(accessClock.incrementAndGet());
+            LOGGER.debug("Returning cached price for case: {}", key); // Horká cesta: bez DEBUG jen kontrola úrovně
+            recordLookup(caseStats, "case", key,
+                    cachedEntry.future.isDone() ? CacheLookupEvent.HIT : CacheLookupEvent.COALESCED);
+            return cachedEntry.future;
+        }
+        if (cachedEntry != null && serveStaleCase(key, cachedEntry)) {
+            recordLookup(caseStats, "case", key, CacheLookupEvent.STALE);
+            return cachedEntry.future;
+        }
+
+        CacheEntry<Case> created = claimCaseEntry(key);
+        if (created == null) {
+            // Jiné vlákno mezitím začalo stahovat nebo uložilo čerstvou cenu
+            return getCachedCasePrice(key);
+        }
+
+        LOGGER.debug("Fetching case price from API for case: {}", key);
+        recordLookup(caseStats, "case", key, CacheLookupEvent.MISS);
+        apiClient.fetchCasePrice(key.caseName, key.currency)
+                .whenComplete((casePrice, e) -> {
+                    if (e != null) {
+                        LOGGER.warn("FAILED to fetch case price for: {}", key, e);
                     }
-                    return casePrice;
-                })
-                .exceptionally(e -> {
-                    LOGGER.log(Level.WARNING, "FAILED to fetch case price for: " + caseName, e);
-                    if (cachedEntry != null) {
-                        LOGGER.log(Level.INFO, "Returning cached price for case: " + caseName);
-                        return cachedEntry.data;
+                    completeCaseEntry(key, created, cachedEntry, e == null ? casePrice : null);
+                });
+        return created.future;
+    }
+
+    /**
+     * Získá ceny více beden najednou v USD.
+     *
+     * @param caseNames Názvy beden.
+     * @return CompletableFuture s mapou název bedny -> Case.
+     * @see #getCasePrices(Collection, Currency)
+     */
+    public CompletableFuture<Map<String, Case>> getCasePrices(Collection<String> caseNames) {
+        return getCasePrices(caseNames, Currency.USD);
+    }
+
+    /**
+     * Získá ceny více beden najednou v zadané měně.
+     * Bedny s platnou cenou v cache (nebo s rozpracovaným požadavkem) se vrátí
+     * z cache, ostatní se stáhnou jedním dávkovým voláním
+     * {@link ApiClient#fetchCasePrices(Collection, Currency)}. Měny, které
+     * Steam nepodporuje, se převedou z cen v USD stejně jako
+     * v {@link #getCasePrice(String, Currency)}.
+     *
+     * @param caseNames Názvy beden.
+     * @param currency  Měna cen.
+     * @return CompletableFuture s mapou název bedny -> Case. Bedny, jejichž cenu
+     *         se nepodařilo získat, v mapě chybí.
+     */
+    public CompletableFuture<Map<String, Case>> getCasePrices(Collection<String> caseNames, Currency currency) {
+        Currency pricingCurrency = getPricingCurrency(currency);
+        if (pricingCurrency == currency) {
+            return getCachedCasePrices(caseNames, currency);
+        }
+        return getCachedCasePrices(caseNames, pricingCurrency)
+                .thenCombine(getExchange(), (prices, exchange) -> {
+                    Map<String, Case> converted = new LinkedHashMap<>();
+                    prices.forEach((caseName, casePrice) -> {
+                        Case convertedPrice = convertCase(casePrice, exchange, currency);
+                        if (convertedPrice != null) {
+                            converted.put(caseName, convertedPrice);
+                        }
+                    });
+                    return converted;
+                });
+    }
+
+    private CompletableFuture<Map<String, Case>> getCachedCasePrices(Collection<String> caseNames,
+            Currency currency) {
+        if (!persistentCacheLoaded.isDone()) {
+            return persistentCacheLoaded.thenCompose(v -> getCachedCasePrices(caseNames, currency));
+        }
+        Map<String, CompletableFuture<Case>> futures = new LinkedHashMap<>();
+        Map<String, CacheEntry<Case>> claimed = new LinkedHashMap<>();
+        Map<String, CacheEntry<Case>> previous = new HashMap<>();
+        for (String caseName : caseNames) {
+            if (futures.containsKey(caseName)) {
+                continue;
+            }
+            CaseKey key = new CaseKey(caseName, currency);
+            CacheEntry<Case> cachedEntry = casePriceCache.get(key);
+            if (cachedEntry != null && cachedEntry.isUsable(Constants.CASE_CACHE_EXPIRY_MINUTES)) {
+                cachedEntry.touch(accessClock.incrementAndGet());
+                futures.put(caseName, cachedEntry.future);
+                continue;
+            }
+            if (cachedEntry != null && serveStaleCase(key, cachedEntry)) {
+                futures.put(caseName, cachedEntry.future);
+                continue;
+            }
+            CacheEntry<Case> created = claimCaseEntry(key);
+            if (created == null) {
+                futures.put(caseName, getCachedCasePrice(key));
+                continue;
+            }
+            claimed.put(caseName, created);
+            if (cachedEntry != null) {
+                previous.put(caseName, cachedEntry);
+            }
+            futures.put(caseName, created.future);
+        }
+
+        if (!claimed.isEmpty()) {
+            LOGGER.info("Fetching {} case prices in {} from API.", claimed.size(), currency);
+            apiClient.fetchCasePrices(claimed.keySet(), currency)
+                    .whenComplete((fetched, e) -> {
+                        if (e != null) {
+                            LOGGER.warn("FAILED to fetch case prices.", e);
+                        }
+                        for (Map.Entry<String, CacheEntry<Case>> entry : claimed.entrySet()) {
+                            String caseName = entry.getKey();
+                            Case casePrice = fetched != null ? fetched.get(caseName) : null;
+                            completeCaseEntry(new CaseKey(caseName, currency), entry.getValue(),
+                                    previous.get(caseName), casePrice);
+                        }
+                    });
+        }
+
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture<?>[]::new))
+                .thenApply(v -> {
+                    Map<String, Case> prices = new LinkedHashMap<>();
+                    futures.forEach((caseName, future) -> {
+                        Case casePrice = future.join(); // Už je dokončený, neblokuje
+                        if (casePrice != null) {
+                            prices.put(caseName, casePrice);
+                        }
+                    });
+                    return prices;
+                });
+    }
+
+    /**
+     * Převede cenu bedny do jiné měny přes směnné kurzy.
+     *
+     * @param casePrice Cena bedny, nebo null.
+     * @param exchange  Směnné kurzy, nebo null.
+     * @param currency  Cílová měna.
+     * @return Cena v cílové měně, nebo null, pokud cena nebo kurz chybí.
+     */
+    private static Case convertCase(Case casePrice, Exchange exchange, Currency currency) {
+        if (casePrice == null) {
+            return null;
+        }
+        if (exchange == null || !exchange.hasRate(casePrice.getCurrency()) || !exchange.hasRate(currency)) {
+            LOGGER.warn("No exchange rate to convert price of {} to {}", casePrice.getName(), currency);
+            return null;
+        }
+        return new Case(casePrice.getName(), exchange.convert(casePrice.getPrice(), casePrice.getCurrency(), currency),
+                currency);
+    }
+
+    /**
+     * Vynutí stažení aktuálních cen beden v USD bez ohledu na stáří cache.
+     *
+     * @param caseNames Názvy beden.
+     * @return CompletableFuture s mapou úspěšně stažených cen.
+     * @see #refreshCasePrices(Collection, Currency)
+     */
+    public CompletableFuture<Map<String, Case>> refreshCasePrices(Collection<String> caseNames) {
+        return refreshCasePrices(caseNames, Currency.USD);
+    }
+
+    /**
+     * Vynutí stažení aktuálních cen beden bez ohledu na stáří cache.
+     * Stažené ceny nahradí položky v cache a posluchači jsou informováni
+     * o změnách. Ceny, které se nepodařilo stáhnout, zůstanou v cache beze
+     * změny. Pro měny, které Steam nepodporuje, se obnoví ceny v USD.
+     *
+     * @param caseNames Názvy beden.
+     * @param currency  Měna cen.
+     * @return CompletableFuture s mapou úspěšně stažených cen (v měně
+     *         {@link #getPricingCurrency(Currency)}).
+     */
+    public CompletableFuture<Map<String, Case>> refreshCasePrices(Collection<String> caseNames, Currency currency) {
+        Currency pricingCurrency = getPricingCurrency(currency);
+        return apiClient.fetchCasePrices(caseNames, pricingCurrency)
+                .thenApply(fetched -> {
+                    fetched.forEach((caseName, casePrice) -> {
+                        CacheEntry<Case> previous = casePriceCache.put(new CaseKey(caseName, pricingCurrency),
+                                CacheEntry.loaded(casePrice, accessClock.incrementAndGet()));
+                        fireCasePriceUpdated(previous != null ? previous.getNow() : null, casePrice);
+                    });
+                    evictIfNeeded();
+                    return fetched;
+                });
+    }
+
+    /**
+     * Vynutí stažení aktuálních směnných kurzů bez ohledu na stáří cache.
+     *
+     * @return CompletableFuture se staženými kurzy, nebo null v případě chyby
+     *         (kurzy v cache pak zůstanou beze změny).
+     */
+    public CompletableFuture<Exchange> refreshExchange() {
+        return apiClient.fetchExchangeRates()
+                .thenApply(exchange -> {
+                    if (exchange != null) {
+                        CacheEntry<Exchange> previous = exchangeCache.getAndSet(CacheEntry.loaded(exchange, 0));
+                        fireExchangeUpdated(previous != null ? previous.getNow() : null, exchange);
                     }
-                    return null;
+                    return exchange;
                 });
     }
 
+    /**
+     * Vrátí stáří ceny bedny v USD uložené v cache.
+     *
+     * @param caseName Název bedny.
+     * @return Stáří ceny, nebo null, pokud cena v cache není.
+     * @see #getCasePriceAge(String, Currency)
+     */
+    public Duration getCasePriceAge(String caseName) {
+        return getCasePriceAge(caseName, Currency.USD);
+    }
+
+    /**
+     * Vrátí stáří ceny bedny uložené v cache, tedy dobu od jejího stažení z API.
+     * Ceny načtené z perzistentní cache si zachovávají původní stáří.
+     *
+     * @param caseName Název bedny.
+     * @param currency Měna ceny (pro měny nepodporované Steamem se vrátí
+     *                 stáří ceny v USD).
+     * @return Stáří ceny, nebo null, pokud cena v cache není.
+     */
+    public Duration getCasePriceAge(String caseName, Currency currency) {
+        CacheEntry<Case> cachedEntry = casePriceCache.get(new CaseKey(caseName, getPricingCurrency(currency)));
+        return cachedEntry != null ? cachedEntry.age() : null;
+    }
+
+    /**
+     * Vrátí stáří směnných kurzů uložených v cache.
+     *
+     * @return Stáří kurzů, nebo null, pokud kurzy v cache nejsou.
+     */
+    public Duration getExchangeAge() {
+        CacheEntry<Exchange> cachedEntry = exchangeCache.get();
+        return cachedEntry != null ? cachedEntry.age() : null;
+    }
+
+    /**
+     * Vloží do paměťové cache data načtená z perzistentního úložiště.
+     * Položky, které už v paměti jsou, se nepřepisují.
+     *
+     * @param snapshot Načtená data.
+     */
+    private void restoreSnapshot(PriceCacheStore.Snapshot snapshot) {
+        for (PriceCacheStore.Stored<Case> stored : snapshot.getCases()) {
+            Case data = stored.getData();
+            casePriceCache.putIfAbsent(new CaseKey(data.getName(), data.getCurrency()),
+                    CacheEntry.restored(data, stored.getSavedAtMillis(), accessClock.incrementAndGet()));
+        }
+        PriceCacheStore.Stored<Exchange> exchange = snapshot.getExchange();
+        if (exchange != null) {
+            exchangeCache.compareAndSet(null,
+                    CacheEntry.restored(exchange.getData(), exchange.getSavedAtMillis(), 0));
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * Vytvoří snapshot aktuálně stažených dat pro zápis na disk.
+     *
+     * @return Obsah cache bez rozpracovaných požadavků.
+     */
+    private PriceCacheStore.Snapshot snapshot() {
+        PriceCacheStore.Snapshot snapshot = new PriceCacheStore.Snapshot();
+        casePriceCache.values().forEach(entry -> {
+            Case data = entry.getNow();
+            long loadedAt = entry.loadedAtMillis;
+            if (data != null && loadedAt != 0) {
+                snapshot.addCase(data, loadedAt);
+            }
+        });
+        CacheEntry<Exchange> exchange = exchangeCache.get();
+        if (exchange != null && exchange.getNow() != null && exchange.loadedAtMillis != 0) {
+            snapshot.setExchange(exchange.getNow(), exchange.loadedAtMillis);
+        }
+        return snapshot;
+    }
+
+    private void persist() {
+        if (cacheStore != null) {
+            cacheStore.scheduleWrite(this::snapshot);
+        }
+    }
+
+    /**
+     * Uvolní prostředky služby. Pokud čeká zápis perzistentní cache, provede
+     * se hned. Volá se při ukončení aplikace.
+     */
+    public void close() {
+        if (cacheStore != null) {
+            cacheStore.close();
+        }
+    }
+
+    /**
+     * Vrátí počet položek v cache cen beden (včetně rozpracovaných požadavků).
+     *
+     * @return Počet položek v cache.
+     */
+    public int getCachedCaseCount() {
+        return casePriceCache.size();
+    }
+
+    /**
+     * Pokud je zapnutý režim stale-while-revalidate a položka je expirovaná,
+     * ale stále v toleranční lhůtě, spustí její obnovu na pozadí.
+     *
+     * @param key         Bedna a měna.
+     * @param cachedEntry Položka z cache.
+     * @return True, pokud lze volajícímu vrátit (neaktuální) data z položky.
+     */
+    private boolean serveStaleCase(CaseKey key, CacheEntry<Case> cachedEntry) {
+        if (!staleWhileRevalidate
+                || !cachedEntry.isStale(Constants.CASE_CACHE_EXPIRY_MINUTES, Constants.CASE_CACHE_STALE_GRACE_MINUTES)) {
+            return false;
+        }
+        cachedEntry.touch(accessClock.incrementAndGet());
+        if (cachedEntry.beginRefresh()) {
+            LOGGER.info("Returning stale price and refreshing in background for case: {}", key);
+            apiClient.fetchCasePrice(key.caseName, key.currency)
+                    .whenComplete((casePrice, e) -> {
+                        if (e != null || casePrice == null) {
+                            LOGGER.warn("Background refresh failed for case: {}", key, e);
+                            cachedEntry.endRefresh(); // Další volání to zkusí znovu
+                            return;
+                        }
+                        CacheEntry<Case> refreshed = CacheEntry.loaded(casePrice, accessClock.incrementAndGet());
+                        // Položku mohlo mezitím nahradit jiné vlákno - v tom případě ji nepřepisujeme
+                        if (!casePriceCache.replace(key, cachedEntry, refreshed)) {
+                            cachedEntry.endRefresh();
+                        }
+                        fireCasePriceUpdated(cachedEntry.getNow(), casePrice);
+                    });
+        }
+        return true;
+    }
+
+    /**
+     * Atomicky vloží do cache novou rozpracovanou položku pro danou bednu a měnu.
+     *
+     * @param key Bedna a měna.
+     * @return Nová položka, kterou má volající naplnit, nebo null, pokud je
+     *         v cache už použitelná položka od jiného vlákna.
+     */
+    private CacheEntry<Case> claimCaseEntry(CaseKey key) {
+        CacheEntry<Case> created = new CacheEntry<>(new CompletableFuture<>(), accessClock.incrementAndGet());
+        CacheEntry<Case> winner = casePriceCache.compute(key,
+                (k, current) -> current != null && current.isUsable(Constants.CASE_CACHE_EXPIRY_MINUTES)
+                        ? current
+                        : created);
+        if (winner != created) {
+            return null;
+        }
+        evictIfNeeded();
+        return created;
+    }
+
+    /**
+     * Dokončí rozpracovanou položku cache. Pokud se cenu nepodařilo získat,
+     * vrátí se poslední známá cena (pokud existuje) a položka se v cache
+     * nahradí původní, aby další volání zkusilo API znovu.
+     *
+     * @param key       Bedna a měna.
+     * @param created   Rozpracovaná položka.
+     * @param previous  Předchozí (expirovaná) položka, nebo null.
+     * @param casePrice Stažená cena, nebo null v případě chyby.
+     */
+    private void completeCaseEntry(CaseKey key, CacheEntry<Case> created, CacheEntry<Case> previous,
+            Case casePrice) {
+        if (casePrice != null) {
+            created.markLoaded();
+            created.future.complete(casePrice);
+            LOGGER.debug("Cached price for case: {}", key);
+            fireCasePriceUpdated(previous != null ? previous.getNow() : null, casePrice);
+            return;
+        }
+
+        LOGGER.warn("Failed to fetch case price for: {}", key);
+        Case fallback = previous != null ? previous.getNow() : null;
+        if (fallback != null) {
+            casePriceCache.replace(key, created, previous);
+            LOGGER.info("Returning cached price for case: {}", key);
+        } else {
+            casePriceCache.remove(key, created);
+        }
+        created.future.complete(fallback);
+    }
+
+    /**
+     * Odstraní nejdéle nepoužité položky, dokud cache nepřekračuje maximální
+     * velikost {@link Constants#CASE_CACHE_MAX_ENTRIES}.
+     */
+    private void evictIfNeeded() {
+        while (casePriceCache.size() > Constants.CASE_CACHE_MAX_ENTRIES) {
+            Map.Entry<CaseKey, CacheEntry<Case>> eldest = null;
+            for (Map.Entry<CaseKey, CacheEntry<Case>> entry : casePriceCache.entrySet()) {
+                if (eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess) {
+                    eldest = entry;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            casePriceCache.remove(eldest.getKey(), eldest.getValue());
+            LOGGER.debug("Evicted case from cache: {}", eldest.getKey());
+        }
+    }
+
     /**
      * Získá aktuální směnné kurzy.
      * Pokud jsou kurzy v cache a jsou validní, vrátí je z cache.
+     * Pokud se kurzy právě stahují, vrátí rozpracovaný požadavek.
      * Jinak je stáhne z API a uloží do cache.
      *
      * @return CompletableFuture s objektem Exchange (obsahujícím kurzy).
      */
     public CompletableFuture<Exchange> getExchange() {
-        if (exchangeCache != null
-                && !isCacheExpired(exchangeCache.timestamp, Constants.EXCHANGE_RATE_CACHE_EXPIRY_MINUTES)) {
-            LOGGER.log(Level.INFO, "Returning exchange rates from cache.");
-            return CompletableFuture.completedFuture(exchangeCache.data);
+        if (!persistentCacheLoaded.isDone()) {
+            return persistentCacheLoaded.thenCompose(v -> getExchange());
+        }
+        CacheEntry<Exchange> cachedEntry = exchangeCache.get();
+        if (cachedEntry != null && cachedEntry.isUsable(Constants.EXCHANGE_RATE_CACHE_EXPIRY_MINUTES)) {
+            LOGGER.debug("Returning exchange rates from cache.");
+            recordLookup(exchangeStats, "exchange", "rates",
+                    cachedEntry.future.isDone() ? CacheLookupEvent.HIT : CacheLookupEvent.COALESCED);
+            return cachedEntry.future;
+        }
+        if (cachedEntry != null && serveStaleExchange(cachedEntry)) {
+            recordLookup(exchangeStats, "exchange", "rates", CacheLookupEvent.STALE);
+            return cachedEntry.future;
+        }
+
+        CacheEntry<Exchange> created = new CacheEntry<>(new CompletableFuture<>(), 0);
+        if (!exchangeCache.compareAndSet(cachedEntry, created)) {
+            return getExchange(); // Jiné vlákno mezitím začalo stahovat
         }
+
         LOGGER.info("Fetching exchange rates from API.");
-        return apiClient.fetchExchangeRates()
-                .thenApply(exchange -> {
-                    if (exchange != null) {
-                        exchangeCache = new CacheEntry<>(exchange, LocalDateTime.now());
-                        LOGGER.log(Level.INFO, "Cached exchange rates.");
+        recordLookup(exchangeStats, "exchange", "rates", CacheLookupEvent.MISS);
+        apiClient.fetchExchangeRates()
+                .whenComplete((exchange, e) -> {
+                    if (e != null) {
+                        LOGGER.warn("FAILED to fetch exchange rates.", e);
                     }
-                    return exchange;
-                })
-                .exceptionally(e -> {
-                    LOGGER.log(Level.WARNING, "FAILED to fetch exchange rates.", e);
-                    if (exchangeCache != null
-                            && !isCacheExpired(exchangeCache.timestamp, Constants.EXCHANGE_RATE_CACHE_EXPIRY_MINUTES)) {
-                        LOGGER.log(Level.INFO, "Returning cached exchange rates.");
-                        return exchangeCache.data;
+                    if (e == null && exchange != null) {
+                        created.markLoaded();
+                        created.future.complete(exchange);
+                        LOGGER.debug("Cached exchange rates.");
+                        fireExchangeUpdated(cachedEntry != null ? cachedEntry.getNow() : null, exchange);
+                        return;
                     }
-                    return null;
+                    Exchange fallback = cachedEntry != null ? cachedEntry.getNow() : null;
+                    exchangeCache.compareAndSet(created, cachedEntry);
+                    if (fallback != null) {
+                        LOGGER.info("Returning cached exchange rates.");
+                    }
+                    created.future.complete(fallback);
                 });
+        return created.future;
+    }
 
+    /**
+     * Najde měnu pro kód z uživatelského vstupu (HTTP server, dávkový režim).
+     * Přijme jen měny už registrované (výchozí, z perzistentní cache nebo ze
+     * seznamu měn z API) a měny, ve kterých ceny vrací přímo Steam. Neznámý
+     * kód se nikdy neregistruje: každá registrovaná měna zvětšuje tabulku
+     * křížových kurzů v {@link Exchange} i seznam měn v UI.
+     *
+     * @param code Kód měny.
+     * @return CompletableFuture s měnou, nebo s null pro neznámý kód.
+     */
+    public CompletableFuture<Currency> findCurrency(String code) {
+        Currency known = knownCurrency(code);
+        if (known != null) {
+            return CompletableFuture.completedFuture(known);
+        }
+        // Měna může být teprve v seznamu z API; ten se stahuje jen jednou za běh
+        return getCurrencies().thenApply(list -> knownCurrency(code));
+    }
+
+    private static Currency knownCurrency(String code) {
+        Currency currency = Currency.find(code);
+        if (currency == null && code != null
+                && Constants.STEAM_CURRENCY_IDS.containsKey(code.toUpperCase(Locale.ROOT))) {
+            currency = Currency.of(code); // Konečný seznam měn Steamu, registry nijak nenafoukne
+        }
+        return currency;
     }
 
     /**
-     * Pomocná metoda pro kontrolu expirace cache.
-     * 
-     * @param timestamp     Čas, kdy byla data uložena do cache.
-     * @param expiryMinutes Počet minut, po kterých cache expiruje.
-     * @return True, pokud cache expirovala, jinak false.
+     * Získá seznam všech měn, které lze zvolit. Seznam se stahuje z API jen
+     * jednou za běh aplikace; pokud se stažení nepodaří, vrátí se měny, které
+     * jsou už registrované (výchozí a z perzistentní cache), a příští volání
+     * to zkusí znovu.
+     *
+     * @return CompletableFuture se seznamem měn.
      */
-    private boolean isCacheExpired(LocalDateTime timestamp, int expiryMinutes) {
-        return timestamp.plusMinutes(expiryMinutes).isBefore(LocalDateTime.now());
+    public CompletableFuture<List<Currency>> getCurrencies() {
+        CompletableFuture<List<Currency>> cached = currencies.get();
+        if (cached != null) {
+            return cached;
+        }
+        CompletableFuture<List<Currency>> created = new CompletableFuture<>();
+        if (!currencies.compareAndSet(null, created)) {
+            return currencies.get();
+        }
+        persistentCacheLoaded
+                .thenCompose(v -> apiClient.fetchCurrencies())
+                .whenComplete((fetched, e) -> {
+                    if (e != null || fetched == null || fetched.isEmpty()) {
+                        currencies.compareAndSet(created, null); // Příště zkusit znovu
+                        created.complete(Currency.list());
+                    } else {
+                        created.complete(Currency.list()); // Registr obsahuje stažené i dříve známé měny
+                    }
+                });
+        return created;
+    }
+
+    /**
+     * Obdoba {@link #serveStaleCase(CaseKey, CacheEntry)} pro směnné kurzy.
+     *
+     * @param cachedEntry Položka z cache.
+     * @return True, pokud lze volajícímu vrátit (neaktuální) kurzy z položky.
+     */
+    private boolean serveStaleExchange(CacheEntry<Exchange> cachedEntry) {
+        if (!staleWhileRevalidate || !cachedEntry.isStale(Constants.EXCHANGE_RATE_CACHE_EXPIRY_MINUTES,
+                Constants.EXCHANGE_RATE_STALE_GRACE_MINUTES)) {
+            return false;
+        }
+        if (cachedEntry.beginRefresh()) {
+            LOGGER.info("Returning stale exchange rates and refreshing in background.");
+            apiClient.fetchExchangeRates()
+                    .whenComplete((exchange, e) -> {
+                        if (e != null || exchange == null) {
+                            LOGGER.warn("Background refresh of exchange rates failed.", e);
+                            cachedEntry.endRefresh();
+                            return;
+                        }
+                        if (!exchangeCache.compareAndSet(cachedEntry, CacheEntry.loaded(exchange, 0))) {
+                            cachedEntry.endRefresh();
+                        }
+                        fireExchangeUpdated(cachedEntry.getNow(), exchange);
+                    });
+        }
+        return true;
+    }
+
+    /**
+     * Započítá dotaz do cache do metrik a zapíše JFR událost.
+     *
+     * @param stats  Čítače dané cache.
+     * @param cache  Název cache pro JFR.
+     * @param key    Klíč dotazu.
+     * @param result Výsledek, jedna z konstant {@link CacheLookupEvent}.
+     */
+    private static void recordLookup(CacheStats stats, String cache, Object key, String result) {
+        switch (result) {
+            case CacheLookupEvent.HIT -> stats.hit();
+            case CacheLookupEvent.STALE -> stats.stale();
+            case CacheLookupEvent.COALESCED -> stats.coalesced();
+            default -> stats.miss();
+        }
+        CacheLookupEvent.emit(cache, key, result);
+    }
+
+    private void fireCasePriceUpdated(Case previous, Case current) {
+        persist();
+        boolean changed = previous == null || Double.compare(previous.getPrice(), current.getPrice()) != 0;
+        for (PriceUpdateListener listener : listeners) {
+            try {
+                listener.onCasePriceUpdated(previous, current, changed);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Price update listener failed.", e);
+            }
+        }
+    }
+
+    private void fireExchangeUpdated(Exchange previous, Exchange current) {
+        persist();
+        boolean changed = !current.equals(previous);
+        for (PriceUpdateListener listener : listeners) {
+            try {
+                listener.onExchangeUpdated(previous, current, changed);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Price update listener failed.", e);
+            }
+        }
+    }
+
+    /**
+     * Klíč cache cen beden: název bedny a měna, ve které je cena stažena.
+     */
+    private static final class CaseKey {
+        private final String caseName;
+        private final Currency currency;
+
+        CaseKey(String caseName, Currency currency) {
+            this.caseName = caseName;
+            this.currency = currency;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof CaseKey))
+                return false;
+            CaseKey other = (CaseKey) o;
+            return currency == other.currency && caseName.equals(other.caseName);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * caseName.hashCode() + currency.ordinal();
+        }
+
+        @Override
+        public String toString() {
+            return caseName + " (" + currency + ")";
+        }
     }
 
     /**
      * Vnitřní pomocná třída pro uchovávání dat v cache spolu s časovým razítkem.
-     * 
+     * Data jsou uložena jako CompletableFuture, takže položka existuje už
+     * během stahování a souběžní volající sdílí jeden požadavek.
+     *
      * @param <T> Typ dat uložených v cache.
      */
     private static class CacheEntry<T> {
-        private final T data;
-        private final LocalDateTime timestamp;
+        private final CompletableFuture<T> future;
+        private volatile long loadedAtMillis; // 0, dokud nejsou data stažena
+        private volatile long lastAccess;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        CacheEntry(CompletableFuture<T> future, long lastAccess) {
+            this.future = future;
+            this.lastAccess = lastAccess;
+        }
+
+        /**
+         * Vytvoří položku s už staženými daty.
+         */
+        static <T> CacheEntry<T> loaded(T data, long lastAccess) {
+            CacheEntry<T> entry = new CacheEntry<>(CompletableFuture.completedFuture(data), lastAccess);
+            entry.markLoaded();
+            return entry;
+        }
+
+        /**
+         * Vytvoří položku z dat načtených z disku s původním časem stažení.
+         */
+        static <T> CacheEntry<T> restored(T data, long loadedAtMillis, long lastAccess) {
+            CacheEntry<T> entry = new CacheEntry<>(CompletableFuture.completedFuture(data), lastAccess);
+            entry.loadedAtMillis = loadedAtMillis;
+            return entry;
+        }
+
+        /**
+         * Vrátí dobu od stažení dat, nebo null, pokud data ještě nejsou.
+         */
+        Duration age() {
+            long loadedAt = loadedAtMillis;
+            return loadedAt == 0 ? null : Duration.ofMillis(System.currentTimeMillis() - loadedAt);
+        }
+
+        /**
+         * Označí položku jako obnovovanou na pozadí.
+         *
+         * @return True, pokud obnovu spouští volající; false, pokud už běží.
+         */
+        boolean beginRefresh() {
+            return refreshing.compareAndSet(false, true);
+        }
 
-        CacheEntry(T data, LocalDateTime timestamp) {
-            this.data = data;
-            this.timestamp = timestamp;
+        void endRefresh() {
+            refreshing.set(false);
+        }
+
+        void markLoaded() {
+            loadedAtMillis = System.currentTimeMillis();
+        }
+
+        void touch(long tick) {
+            lastAccess = tick;
+        }
+
+        /**
+         * Vrátí data, pokud už jsou stažená, jinak null.
+         */
+        T getNow() {
+            return future.getNow(null);
+        }
+
+        /**
+         * Položka je použitelná, pokud se data právě stahují, nebo pokud jsou
+         * stažená a ještě neexpirovala.
+         *
+         * @param expiryMinutes Počet minut, po kterých cache expiruje.
+         * @return True, pokud lze položku vrátit volajícímu.
+         */
+        boolean isUsable(int expiryMinutes) {
+            if (!future.isDone()) {
+                return true;
+            }
+            long loadedAt = loadedAtMillis;
+            return loadedAt != 0
+                    && System.currentTimeMillis() - loadedAt < TimeUnit.MINUTES.toMillis(expiryMinutes);
+        }
+
+        /**
+         * Položka je neaktuální (stale), pokud už expirovala, ale od expirace
+         * neuplynula toleranční lhůta.
+         *
+         * @param expiryMinutes Počet minut, po kterých cache expiruje.
+         * @param graceMinutes  Toleranční lhůta po expiraci v minutách.
+         * @return True, pokud lze data vrátit a obnovit na pozadí.
+         */
+        boolean isStale(int expiryMinutes, int graceMinutes) {
+            long loadedAt = loadedAtMillis;
+            if (!future.isDone() || loadedAt == 0) {
+                return false;
+            }
+            long age = System.currentTimeMillis() - loadedAt;
+            return age >= TimeUnit.MINUTES.toMillis(expiryMinutes)
+                    && age < TimeUnit.MINUTES.toMillis(expiryMinutes + graceMinutes);
         }
     }
 
@@ -141,4 +942,20 @@ public class PriceService {
         return keyPrice();
     }
 
+    /**
+     * Vrátí cenu klíče v zadané měně. Pro USD se směnné kurzy nepotřebují.
+     *
+     * @param currency Měna ceny.
+     * @return CompletableFuture s cenou klíče, nebo null, pokud kurz pro měnu
+     *         není dostupný.
+     */
+    public CompletableFuture<Double> getKeyPrice(Currency currency) {
+        if (currency == Currency.USD) {
+            return CompletableFuture.completedFuture(keyPrice());
+        }
+        return getExchange().thenApply(exchange -> exchange != null && exchange.hasRate(currency)
+                ? exchange.convert(keyPrice(), Currency.USD, currency)
+                : null);
+    }
+
 }
@@ -0,0 +1,67 @@
+package com.example.bednovac.service;
+
+/**
+ * Souhrnné statistiky časové řady za zvolené období (výsledek dotazu na
+ * {@link PriceHistoryStore}).
+ */
+public final class PriceStats {
+
+    /**
+     * Statistiky prázdného období.
+     */
+    public static final PriceStats EMPTY = new PriceStats(0, Double.NaN, Double.NaN, Double.NaN);
+
+    private final long count;
+    private final double min;
+    private final double max;
+    private final double average;
+
+    PriceStats(long count, double min, double max, double average) {
+        this.count = count;
+        this.min = min;
+        this.max = max;
+        this.average = average;
+    }
+
+    /**
+     * @return Počet vzorků v období.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Nejnižší hodnota, nebo {@link Double#NaN}, pokud je období prázdné.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return Nejvyšší hodnota, nebo {@link Double#NaN}, pokud je období prázdné.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return Průměrná hodnota, nebo {@link Double#NaN}, pokud je období prázdné.
+     */
+    public double getAverage() {
+        return average;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceStats{" +
+                "count=" + count +
+                ", min=" + min +
+                ", max=" + max +
+                ", average=" + average +
+                '}';
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Currency;
+
+/**
+ * Neměnný snapshot trendových ukazatelů ceny jedné bedny, vypočítaný
+ * {@link PriceTrendAnalyzer} po posledním vzorku. Lze jej číst z libovolného
+ * vlákna (včetně FX vlákna) bez zamykání.
+ */
+public final class PriceTrend {
+    private final String caseName;
+    private final Currency currency;
+    private final double price;
+    private final long timestampMillis;
+    private final int sampleCount;
+    private final double shortAverage;
+    private final double longAverage;
+    private final double volatility;
+    private final double windowMin;
+    private final double windowMax;
+    private final boolean buySignal;
+
+    PriceTrend(String caseName, Currency currency, double price, long timestampMillis, int sampleCount,
+            double shortAverage, double longAverage, double volatility, double windowMin, double windowMax,
+            boolean buySignal) {
+        this.caseName = caseName;
+        this.currency = currency;
+        this.price = price;
+        this.timestampMillis = timestampMillis;
+        this.sampleCount = sampleCount;
+        this.shortAverage = shortAverage;
+        this.longAverage = longAverage;
+        this.volatility = volatility;
+        this.windowMin = windowMin;
+        this.windowMax = windowMax;
+        this.buySignal = buySignal;
+    }
+
+    public String getCaseName() {
+        return caseName;
+    }
+
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    /**
+     * @return Cena z posledního vzorku.
+     */
+    public double getPrice() {
+        return price;
+    }
+
+    /**
+     * @return Čas posledního vzorku v milisekundách od epochy.
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    /**
+     * @return Počet vzorků v dlouhém okně (nejvýše
+     *         {@link com.example.bednovac.util.Constants#TREND_LONG_WINDOW}).
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * @return Klouzavý průměr přes krátké okno.
+     */
+    public double getShortAverage() {
+        return shortAverage;
+    }
+
+    /**
+     * @return Klouzavý průměr přes dlouhé okno.
+     */
+    public double getLongAverage() {
+        return longAverage;
+    }
+
+    /**
+     * @return Volatilita v dlouhém okně jako směrodatná odchylka děleno
+     *         průměrem (0.05 = 5 %), nebo 0 pro méně než dva vzorky.
+     */
+    public double getVolatility() {
+        return volatility;
+    }
+
+    /**
+     * @return Nejnižší cena v dlouhém okně.
+     */
+    public double getWindowMin() {
+        return windowMin;
+    }
+
+    /**
+     * @return Nejvyšší cena v dlouhém okně.
+     */
+    public double getWindowMax() {
+        return windowMax;
+    }
+
+    /**
+     * Signál "nejlevnější čas na nákup": aktuální cena je blízko minima okna
+     * ({@link com.example.bednovac.util.Constants#TREND_BUY_SIGNAL_THRESHOLD})
+     * a pod dlouhým klouzavým průměrem.
+     *
+     * @return True, pokud je teď vhodná doba na nákup.
+     */
+    public boolean isBuySignal() {
+        return buySignal;
+    }
+
+    @Override
+    public String toString() {
+        return "PriceTrend{" +
+                "caseName='" + caseName + '\'' +
+                ", currency=" + currency +
+                ", price=" + price +
+                ", sampleCount=" + sampleCount +
+                ", shortAverage=" + shortAverage +
+                ", longAverage=" + longAverage +
+                ", volatility=" + volatility +
+                ", windowMin=" + windowMin +
+                ", windowMax=" + windowMax +
+                ", buySignal=" + buySignal +
+                '}';
+    }
+}
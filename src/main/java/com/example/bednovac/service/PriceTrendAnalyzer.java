@@ -0,0 +1,166 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.util.Constants;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inkrementální výpočet trendů cen beden nad proudem obnov z
+ * {@link PriceService}.
+ * <p>
+ * Pro každou bednu (a měnu) drží omezený kruhový buffer posledních vzorků.
+ * Každý nový vzorek aktualizuje klouzavé průměry, volatilitu i minimum a
+ * maximum okna v konstantním čase (průběžné součty a monotónní fronty), nic
+ * se znovu neprochází. Výsledek se zveřejní jako neměnný {@link PriceTrend},
+ * takže UI čte ukazatele okamžitě a bez blokování.
+ */
+public class PriceTrendAnalyzer implements PriceUpdateListener {
+
+    private final Map<String, TrendWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, PriceTrend> trends = new ConcurrentHashMap<>();
+
+    @Override
+    public void onCasePriceUpdated(Case previous, Case current, boolean changed) {
+        addSample(current.getName(), current.getCurrency(), current.getPrice(), System.currentTimeMillis());
+    }
+
+    /**
+     * Zpracuje nový vzorek ceny bedny.
+     *
+     * @param caseName        Název bedny.
+     * @param currency        Měna ceny.
+     * @param price           Cena.
+     * @param timestampMillis Čas vzorku.
+     * @return Aktualizované ukazatele.
+     */
+    public PriceTrend addSample(String caseName, Currency currency, double price, long timestampMillis) {
+        String key = key(caseName, currency);
+        TrendWindow window = windows.computeIfAbsent(key,
+                k -> new TrendWindow(Constants.TREND_SHORT_WINDOW, Constants.TREND_LONG_WINDOW));
+        PriceTrend trend = window.add(caseName, currency, price, timestampMillis);
+        trends.put(key, trend);
+        return trend;
+    }
+
+    /**
+     * Vrátí poslední vypočítané ukazatele pro bednu. Neblokuje.
+     *
+     * @param caseName Název bedny.
+     * @param currency Měna ceny.
+     * @return Ukazatele, nebo null, pokud pro bednu zatím není žádný vzorek.
+     */
+    public PriceTrend getTrend(String caseName, Currency currency) {
+        return trends.get(key(caseName, currency));
+    }
+
+    private static String key(String caseName, Currency currency) {
+        return currency.getCode() + ':' + caseName;
+    }
+
+    /**
+     * Okno vzorků jedné bedny. Krátké okno je suffixem dlouhého, obě sdílí
+     * jeden kruhový buffer.
+     */
+    private static final class TrendWindow {
+        private final int shortSize;
+        private final double[] samples; // Kruhový buffer, vzorek s pořadím n je na indexu n % délka
+        private long total; // Počet všech přijatých vzorků
+
+        private double shortSum;
+        private double longSum;
+        private double longSumSquares;
+
+        // Monotónní fronty pořadových čísel vzorků: čelo je minimum (resp. maximum) okna
+        private final long[] minQueue;
+        private int minHead;
+        private int minSize;
+        private final long[] maxQueue;
+        private int maxHead;
+        private int maxSize;
+
+        TrendWindow(int shortSize, int longSize) {
+            this.shortSize = Math.min(shortSize, longSize);
+            this.samples = new double[longSize];
+            this.minQueue = new long[longSize];
+            this.maxQueue = new long[longSize];
+        }
+
+        synchronized PriceTrend add(String caseName, Currency currency, double price, long timestampMillis) {
+            int capacity = samples.length;
+            long seq = total;
+            if (seq >= shortSize) {
+                shortSum -= samples[(int) ((seq - shortSize) % capacity)];
+            }
+            if (seq >= capacity) {
+                double evicted = samples[(int) (seq % capacity)];
+                longSum -= evicted;
+                longSumSquares -= evicted * evicted;
+            }
+            long oldest = seq - capacity + 1; // Nejstarší vzorek, který v okně zůstane
+            if (minSize > 0 && minQueue[minHead] < oldest) {
+                minHead = (minHead + 1) % capacity;
+                minSize--;
+            }
+            if (maxSize > 0 && maxQueue[maxHead] < oldest) {
+                maxHead = (maxHead + 1) % capacity;
+                maxSize--;
+            }
+            while (minSize > 0 && sampleAt(minQueue[(minHead + minSize - 1) % capacity]) >= price) {
+                minSize--;
+            }
+            while (maxSize > 0 && sampleAt(maxQueue[(maxHead + maxSize - 1) % capacity]) <= price) {
+                maxSize--;
+            }
+            minQueue[(minHead + minSize++) % capacity] = seq;
+            maxQueue[(maxHead + maxSize++) % capacity] = seq;
+
+            samples[(int) (seq % capacity)] = price;
+            shortSum += price;
+            longSum += price;
+            longSumSquares += price * price;
+            total = seq + 1;
+            if (total % capacity == 0) {
+                resum(); // Jednou za délku okna odstraní zaokrouhlovací chyby průběžných součtů
+            }
+            return snapshot(caseName, currency, price, timestampMillis);
+        }
+
+        private double sampleAt(long seq) {
+            return samples[(int) (seq % samples.length)];
+        }
+
+        private void resum() {
+            shortSum = 0;
+            longSum = 0;
+            longSumSquares = 0;
+            for (int i = 0; i < samples.length; i++) {
+                longSum += samples[i];
+                longSumSquares += samples[i] * samples[i];
+            }
+            for (long seq = total - shortSize; seq < total; seq++) {
+                shortSum += sampleAt(seq);
+            }
+        }
+
+        private PriceTrend snapshot(String caseName, Currency currency, double price, long timestampMillis) {
+            int longCount = (int) Math.min(total, samples.length);
+            int shortCount = (int) Math.min(total, shortSize);
+            double longAverage = longSum / longCount;
+            double volatility = 0;
+            if (longCount > 1 && longAverage > 0) {
+                double variance = (longSumSquares - longSum * longSum / longCount) / (longCount - 1);
+                volatility = Math.sqrt(Math.max(0, variance)) / longAverage;
+            }
+            double windowMin = sampleAt(minQueue[minHead]);
+            double windowMax = sampleAt(maxQueue[maxHead]);
+            boolean buySignal = longCount >= shortSize
+                    && price <= windowMin * (1 + Constants.TREND_BUY_SIGNAL_THRESHOLD)
+                    && price < longAverage;
+            return new PriceTrend(caseName, currency, price, timestampMillis, longCount, shortSum / shortCount,
+                    longAverage, volatility, windowMin, windowMax, buySignal);
+        }
+    }
+}
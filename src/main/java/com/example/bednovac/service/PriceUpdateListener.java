@@ -0,0 +1,33 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Exchange;
+
+/**
+ * Posluchač změn dat v {@link PriceService}.
+ * Je volán po každém úspěšném stažení ceny nebo kurzů z API, včetně obnovy
+ * na pozadí. Volá se z vlákna, které dokončilo HTTP požadavek, nikoli z FX
+ * vlákna.
+ */
+public interface PriceUpdateListener {
+
+    /**
+     * Volá se po stažení nové ceny bedny.
+     *
+     * @param previous Předchozí cena z cache, nebo null, pokud nebyla známa.
+     * @param current  Nově stažená cena.
+     * @param changed  True, pokud se cena oproti předchozí změnila.
+     */
+    default void onCasePriceUpdated(Case previous, Case current, boolean changed) {
+    }
+
+    /**
+     * Volá se po stažení nových směnných kurzů.
+     *
+     * @param previous Předchozí kurzy z cache, nebo null, pokud nebyly známy.
+     * @param current  Nově stažené kurzy.
+     * @param changed  True, pokud se kurzy oproti předchozím změnily.
+     */
+    default void onExchangeUpdated(Exchange previous, Exchange current, boolean changed) {
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.bednovac.service;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Neblokující omezovač počtu souběžně běžících asynchronních požadavků.
+ * Požadavky nad limit čekají ve frontě a spustí se, jakmile některý
+ * z běžících požadavků doběhne. Žádné vlákno přitom neblokuje.
+ */
+class RequestLimiter {
+
+    private final Semaphore permits;
+    private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Konstruktor omezovače.
+     *
+     * @param maxConcurrent Maximální počet souběžně běžících požadavků.
+     */
+    RequestLimiter(int maxConcurrent) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Max concurrent requests must be positive");
+        }
+        this.permits = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Zařadí požadavek ke spuštění. Požadavek se spustí hned, pokud je volné
+     * místo, jinak až po doběhnutí některého z běžících požadavků.
+     *
+     * @param task Funkce, která požadavek spustí a vrátí jeho výsledek.
+     * @param <T>  Typ výsledku požadavku.
+     * @return CompletableFuture, který se dokončí výsledkem požadavku.
+     */
+    <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        waiting.add(() -> {
+            CompletableFuture<T> running;
+            try {
+                running = task.get();
+            } catch (RuntimeException e) {
+                running = CompletableFuture.failedFuture(e);
+            }
+            running.whenComplete((value, error) -> {
+                permits.release(); // Uvolní místo ještě před dokončením, aby čekající mohl hned běžet
+                drain();
+                if (error != null) {
+                    result.completeExceptionally(error);
+                } else {
+                    result.complete(value);
+                }
+            });
+        });
+        drain();
+        return result;
+    }
+
+    /**
+     * Spustí čekající požadavky, dokud jsou volná místa.
+     */
+    private void drain() {
+        while (!waiting.isEmpty() && permits.tryAcquire()) {
+            Runnable next = waiting.poll();
+            if (next == null) {
+                permits.release(); // Frontu mezitím vyprázdnilo jiné vlákno
+                return;
+            }
+            next.run();
+        }
+    }
+}
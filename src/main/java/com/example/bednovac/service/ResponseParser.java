@@ -0,0 +1,254 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Currency;
+import com.example.bednovac.model.Exchange;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Proudové (streaming) parsování odpovědí Steam a frankfurter API.
+ * Místo sestavení celého stromu {@code JsonNode} (jackson-databind)
+ * čte jen potřebná pole přímo z bajtů odpovědi a ostatní přeskakuje. Ceny
+ * převádí ručně psaným skenerem bez regulárních výrazů.
+ */
+public final class ResponseParser {
+
+    private static final double[] POWERS_OF_TEN = { 1, 10, 100 };
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * Konstruktor parseru.
+     *
+     * @param jsonFactory Továrna Jackson parserů (bezstavová, lze sdílet).
+     */
+    public ResponseParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Přečte odpověď Steam endpointu priceoverview.
+     *
+     * @param body Tělo odpovědi.
+     * @return Přečtené hodnoty, nebo null, pokud odpověď není úspěšná
+     *         ({@code "success": false}).
+     * @throws IOException Pokud odpověď není platný JSON objekt.
+     */
+    public PriceOverview parsePriceOverview(byte[] body) throws IOException {
+        boolean success = true;
+        double lowestPrice = Double.NaN;
+        double medianPrice = Double.NaN;
+        long volume = -1;
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expectObjectStart(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "success":
+                        success = value == JsonToken.VALUE_TRUE;
+                        break;
+                    case "lowest_price":
+                        lowestPrice = value == JsonToken.VALUE_STRING ? parsePrice(parser.getText()) : Double.NaN;
+                        break;
+                    case "median_price":
+                        medianPrice = value == JsonToken.VALUE_STRING ? parsePrice(parser.getText()) : Double.NaN;
+                        break;
+                    case "volume":
+                        volume = value == JsonToken.VALUE_STRING ? (long) parsePrice(parser.getText())
+                                : value == JsonToken.VALUE_NUMBER_INT ? parser.getLongValue() : -1;
+                        break;
+                    default:
+                        parser.skipChildren(); // Neznámá pole (i vnořená) přeskočí bez alokace
+                }
+            }
+        }
+        return success ? new PriceOverview(lowestPrice, medianPrice, volume) : null;
+    }
+
+    /**
+     * Přečte odpověď frankfurter endpointu /latest. Měny, které zatím nejsou
+     * v registru {@link Currency}, se zaregistrují, takže se zachovají kurzy
+     * všech měn z odpovědi.
+     *
+     * @param body Tělo odpovědi.
+     * @return Směnné kurzy, nebo null, pokud odpověď obsahuje chybu nebo
+     *         žádný použitelný kurz.
+     * @throws IOException Pokud odpověď není platný JSON objekt.
+     */
+    public Exchange parseExchangeRates(byte[] body) throws IOException {
+        Currency base = Currency.USD;
+        Map<Currency, Double> rates = new HashMap<>();
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expectObjectStart(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("error-type".equals(field)) {
+                    return null;
+                } else if ("base".equals(field) && value == JsonToken.VALUE_STRING) {
+                    base = Currency.of(parser.getText());
+                } else if ("rates".equals(field) && value == JsonToken.START_OBJECT) {
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String code = parser.currentName();
+                        parser.nextToken();
+                        if (parser.currentToken().isNumeric() && code.length() == 3) {
+                            rates.put(Currency.of(code), parser.getDoubleValue());
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        rates.remove(base);
+        return rates.isEmpty() ? null : new Exchange(base, rates);
+    }
+
+    /**
+     * Přečte odpověď frankfurter endpointu /currencies (mapa kód -> název)
+     * a všechny měny zaregistruje.
+     *
+     * @param body Tělo odpovědi.
+     * @return Měny z odpovědi v pořadí, v jakém je API vrátilo.
+     * @throws IOException Pokud odpověď není platný JSON objekt.
+     */
+    public List<Currency> parseCurrencies(byte[] body) throws IOException {
+        List<Currency> currencies = new ArrayList<>();
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            expectObjectStart(parser);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String code = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (value == JsonToken.VALUE_STRING && code.length() == 3) {
+                    currencies.add(Currency.register(code, parser.getText()));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return currencies;
+    }
+
+    /**
+     * Převede cenu ze Steamu na číslo. Zvládá formáty různých měn, např.
+     * {@code "$1,234.56"}, {@code "1.234,56€"}, {@code "1 234,56 zł"},
+     * {@code "R$ 1,23"} nebo {@code "1,--€"}. Oddělovač ('.' nebo ',')
+     * následovaný jednou či dvěma číslicemi na konci čísla je desetinný, ostatní
+     * oddělovače (včetně mezer a apostrofů) jsou oddělovače tisíců.
+     * Měny se třemi desetinnými místy (např. KWD) proto přečíst neumí a ceny
+     * v nich se ze Steamu nestahují (viz {@link com.example.bednovac.util.Constants#STEAM_CURRENCY_IDS}).
+     *
+     * @param text Text ceny.
+     * @return Cena, nebo {@link Double#NaN}, pokud text neobsahuje číslo.
+     */
+    public static double parsePrice(CharSequence text) {
+        int length = text.length();
+        int i = 0;
+        while (i < length && !isDigit(text.charAt(i))) {
+            i++; // Přeskočí symbol měny a mezery před číslem
+        }
+        if (i == length) {
+            return Double.NaN;
+        }
+
+        long mantissa = 0;
+        int digitsAfterSeparator = -1; // -1 = zatím žádný oddělovač
+        boolean lastSeparatorDecimalCapable = false;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isDigit(c)) {
+                mantissa = mantissa * 10 + (c - '0');
+                if (digitsAfterSeparator >= 0) {
+                    digitsAfterSeparator++;
+                }
+                i++;
+            } else if (c == '-' && digitsAfterSeparator >= 0 && lastSeparatorDecimalCapable) {
+                mantissa *= 10; // "1,--€" znamená celé euro
+                digitsAfterSeparator++;
+                i++;
+            } else if (isSeparator(c) && i + 1 < length
+                    && (isDigit(text.charAt(i + 1)) || text.charAt(i + 1) == '-')) {
+                digitsAfterSeparator = 0;
+                lastSeparatorDecimalCapable = c == '.' || c == ',';
+                i++;
+            } else {
+                break; // Konec čísla (např. "zł", "€", "pуб.")
+            }
+        }
+
+        if (lastSeparatorDecimalCapable && digitsAfterSeparator >= 1 && digitsAfterSeparator <= 2) {
+            return mantissa / POWERS_OF_TEN[digitsAfterSeparator];
+        }
+        return mantissa;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '.' || c == ',' || c == ' ' || c == '\u00a0' || c == '\u202f' || c == '\'';
+    }
+
+    private static void expectObjectStart(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected JSON object but got " + parser.currentToken());
+        }
+    }
+
+    /**
+     * Hodnoty z odpovědi Steam endpointu priceoverview.
+     */
+    public static final class PriceOverview {
+        private final double lowestPrice;
+        private final double medianPrice;
+        private final long volume;
+
+        PriceOverview(double lowestPrice, double medianPrice, long volume) {
+            this.lowestPrice = lowestPrice;
+            this.medianPrice = medianPrice;
+            this.volume = volume;
+        }
+
+        /**
+         * @return Nejnižší nabídka, nebo {@link Double#NaN}, pokud chybí.
+         */
+        public double getLowestPrice() {
+            return lowestPrice;
+        }
+
+        /**
+         * @return Medián prodejních cen za poslední den, nebo
+         *         {@link Double#NaN}, pokud chybí.
+         */
+        public double getMedianPrice() {
+            return medianPrice;
+        }
+
+        /**
+         * @return Počet prodaných kusů za poslední den, nebo -1, pokud chybí.
+         */
+        public long getVolume() {
+            return volume;
+        }
+
+        /**
+         * Vrátí nejlepší dostupnou cenu: nejnižší nabídku, případně medián.
+         *
+         * @return Cena, nebo {@link Double#NaN}, pokud chybí obě hodnoty.
+         */
+        public double getBestPrice() {
+            return Double.isNaN(lowestPrice) ? medianPrice : lowestPrice;
+        }
+    }
+}
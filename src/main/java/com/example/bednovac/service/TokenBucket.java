@@ -0,0 +1,66 @@
+package com.example.bednovac.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket omezující rychlost požadavků na jeden host.
+ * Místo blokování vrací dobu, po kterou má volající s odesláním počkat,
+ * takže čekání lze naplánovat asynchronně.
+ */
+class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+
+    private double tokens;
+    private long lastRefillNanos;
+    private long pausedUntilNanos;
+
+    /**
+     * Konstruktor token bucketu.
+     *
+     * @param capacity         Maximální počet požadavků odeslaných naráz (burst).
+     * @param requestsPerMinute Průměrný povolený počet požadavků za minutu.
+     */
+    TokenBucket(int capacity, int requestsPerMinute) {
+        if (capacity <= 0 || requestsPerMinute <= 0) {
+            throw new IllegalArgumentException("Capacity and rate must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = requestsPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.tokens = capacity;
+        this.lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Rezervuje jeden token.
+     *
+     * @return Počet nanosekund, po které musí volající počkat, než požadavek
+     *         odešle (0, pokud může odeslat hned).
+     */
+    synchronized long reserve() {
+        long now = System.nanoTime();
+        refill(now);
+        long pauseNanos = Math.max(0, pausedUntilNanos - now);
+        tokens -= 1; // Záporný stav znamená frontu rezervací čekajících na doplnění
+        if (tokens >= 0) {
+            return pauseNanos;
+        }
+        return pauseNanos + (long) Math.ceil(-tokens / tokensPerNano);
+    }
+
+    /**
+     * Pozastaví odesílání na daný host, např. po odpovědi HTTP 429 s hlavičkou
+     * Retry-After.
+     *
+     * @param pauseNanos Doba pozastavení v nanosekundách.
+     */
+    synchronized void pause(long pauseNanos) {
+        pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + pauseNanos);
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = now;
+    }
+}
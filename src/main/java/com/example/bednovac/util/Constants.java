@@ -2,6 +2,9 @@ package com.example.bednovac.util;
 
 import com.example.bednovac.model.Currency;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * Třída obsahující konstanty používané v aplikaci.
  * Zahrnuje ceny, API klíče, URL a nastavení cache.
@@ -15,12 +18,146 @@ public class Constants {
 
     public static final String CASE_PRICE_API_URL = "https://steamcommunity.com/market/priceoverview/?appid=%s&currency=%s&market_hash_name=%s"; // URL pro API získání ceny case
 
+    public static final String STEAM_APP_ID = "730"; // appid hry CS2 (dříve CS:GO) na Steam Marketu
+
     public static final String EXCHANGE_RATE_API_URL = "https://api.frankfurter.app/latest?base=USD" ; // URL pro API získání směnných kurzů
 
+    public static final String CURRENCIES_API_PATH = "/currencies"; // Cesta k seznamu měn na stejném hostu jako směnné kurzy
+
     public static final int EXCHANGE_RATE_CACHE_EXPIRY_MINUTES = 120; // 2 hodiny - Doba expirace cache směnných kurzů v minutách
 
     public static final int CASE_CACHE_EXPIRY_MINUTES = 60; // 1 hodina - Doba expirace cache cen case v minutách
 
+    public static final boolean STALE_WHILE_REVALIDATE = true; // Vracet expirovaná data v toleranční lhůtě a obnovovat je na pozadí
+
+    public static final int EXCHANGE_RATE_STALE_GRACE_MINUTES = 24 * 60; // Toleranční lhůta po expiraci kurzů
+
+    public static final int CASE_CACHE_STALE_GRACE_MINUTES = 6 * 60; // Toleranční lhůta po expiraci cen case
+
+    public static final int CASE_CACHE_MAX_ENTRIES = 256; // Maximální počet beden v cache, pak se odstraňují nejdéle nepoužité
+
+    public static final String PERSISTENT_CACHE_DIR = ".bednovac"; // Adresář perzistentní cache v domovském adresáři uživatele
+
+    public static final String PERSISTENT_CACHE_FILE = "price-cache.bin"; // Soubor perzistentní cache cen a kurzů
+
+    public static final int PERSISTENT_CACHE_WRITE_DELAY_SECONDS = 5; // Zpoždění zápisu cache na disk (slučuje více změn)
+
+    public static final int PERSISTENT_WRITE_CLOSE_TIMEOUT_SECONDS = 5; // Maximální čekání na rozepsaný zápis na disk při zavírání
+
+    public static final String PRICE_HISTORY_DIR = "history"; // Adresář historie cen (uvnitř PERSISTENT_CACHE_DIR)
+
+    public static final int PRICE_HISTORY_SEGMENT_DAYS = 30; // Časový rozsah jednoho segmentu historie
+
+    public static final int PRICE_HISTORY_SEGMENT_BYTES = 64 * 1024; // Velikost segmentu historie (~10 000 vzorků)
+
+    public static final int TREND_SHORT_WINDOW = 12; // Počet vzorků krátkého klouzavého průměru
+
+    public static final int TREND_LONG_WINDOW = 96; // Počet vzorků dlouhého okna (průměr, volatilita, minimum)
+
+    public static final double TREND_BUY_SIGNAL_THRESHOLD = 0.02; // Cena do 2 % nad minimem okna = vhodná doba k nákupu
+
+    public static final long OPTIMIZER_MAX_DP_OPERATIONS = 10_000_000; // Strop práce optimalizátoru rozpočtu (odezva pod 50 ms)
+
+    public static final long OPTIMIZER_MAX_DP_CELLS = 1_000_000; // Strop velikosti tabulky optimalizátoru (paměť)
+
+    public static final int OPTIMIZER_MEMO_SIZE = 32; // Počet zapamatovaných výsledků optimalizátoru
+
+    public static final int MINOR_UNIT_DIGITS = 2; // Počet desetinných míst částek (centy, haléře) při výpočtu balíčků
+
+    public static final int LIVE_RECALCULATION_DEBOUNCE_MS = 300; // Prodleva po poslední změně vstupu před živým přepočtem
+
+    public static final String STARTUP_PROBE_PROPERTY = "bednovac.startup.probe"; // Vypíše čas do prvního snímku a RSS a ukončí aplikaci
+
+    public static final String STARTUP_PROBE_EXIT_DELAY_PROPERTY = "bednovac.startup.exitDelayMs"; // Prodleva před ukončením po prvním snímku (tréninkový běh AppCDS)
+
+    public static final int CLI_BATCH_SIZE = 500; // Počet dotazů zpracovaných najednou v dávkovém režimu
+
+    public static final int PRICING_SERVER_PORT = 8765; // Výchozí port lokálního HTTP serveru s cenami
+
+    public static final String PRICING_SERVER_PORT_PROPERTY = "bednovac.server.port"; // Systémová vlastnost, která server zapne spolu s GUI
+
+    public static final int PRICING_SERVER_TIMEOUT_SECONDS = 15; // Maximální čekání serveru na cenu z API
+
+    public static final String METRICS_MBEAN_NAME = "com.example.bednovac:type=Metrics"; // JMX jméno registru metrik
+
+    public static final String METRICS_SNAPSHOT_FILE = "metrics.json"; // Soubor se snímkem metrik (uvnitř PERSISTENT_CACHE_DIR)
+
+    public static final int METRICS_SNAPSHOT_INTERVAL_SECONDS = 60; // Jak často se snímek metrik zapisuje na disk
+
+    public static final int REFRESH_TICK_SECONDS = 60; // Interval kontroly, které ceny je třeba obnovit na pozadí
+
+    public static final int REFRESH_MIN_INTERVAL_MINUTES = 5; // Nejkratší interval obnovy (často vybírané bedny)
+
+    public static final int REFRESH_MAX_INTERVAL_MINUTES = CASE_CACHE_EXPIRY_MINUTES; // Nejdelší interval obnovy (málo používané bedny)
+
+    public static final int REFRESH_MAX_BACKOFF_LEVEL = 5; // Maximální exponent prodlevy při chybách API (2^5 ticků)
+
+    public static final double REFRESH_POPULARITY_DECAY = 0.99; // Vyhasínání oblíbenosti bedny za jeden tick
+
+    public static final int MAX_CONCURRENT_CASE_REQUESTS = 4; // Maximální počet souběžných požadavků na Steam API
+
+    public static final String STEAM_HOST = "steamcommunity.com";
+
+    public static final int STEAM_REQUESTS_PER_MINUTE = 20; // Steam priceoverview povoluje zhruba 20 požadavků za minutu
+
+    public static final int STEAM_BURST = 5; // Počet požadavků na Steam, které lze odeslat naráz
+
+    public static final String FRANKFURTER_HOST = "api.frankfurter.app";
+
+    public static final int FRANKFURTER_REQUESTS_PER_MINUTE = 60;
+
+    public static final int FRANKFURTER_BURST = 5;
+
+    public static final int HTTP_CONNECT_TIMEOUT_SECONDS = 5; // Timeout navázání spojení
+
+    public static final int HTTP_REQUEST_TIMEOUT_SECONDS = 10; // Timeout celé odpovědi
+
+    public static final int HTTP_MAX_RETRIES = 3; // Maximální počet opakování požadavku
+
+    public static final long HTTP_RETRY_BASE_DELAY_MILLIS = 500; // Základ exponenciální prodlevy mezi pokusy
+
+    public static final long HTTP_RETRY_MAX_DELAY_MILLIS = 8_000; // Strop exponenciální prodlevy mezi pokusy
+
+    public static final int HTTP_MAX_RETRY_AFTER_SECONDS = 120; // Strop pro hodnotu hlavičky Retry-After
+
+    public static final int CIRCUIT_BREAKER_FAILURE_THRESHOLD = 5; // Počet chyb po sobě, po kterém se obvod rozpojí
+
+    public static final int CIRCUIT_BREAKER_OPEN_SECONDS = 60; // Doba, po kterou jsou požadavky na host odmítány
+
+    // Číselné identifikátory měn, ve kterých Steam Market vrací ceny (parametr currency v URL).
+    // Měny, které zde nejsou (např. CZK), se stahují v USD a převádí přes směnné kurzy.
+    // Záměrně chybí měny se třemi desetinnými místy (KWD, id 38): ResponseParser.parsePrice
+    // by "0.750 KD" přečetl jako 750 (tři číslice za oddělovačem považuje za tisíce).
+    public static final Map<String, Integer> STEAM_CURRENCY_IDS = Map.ofEntries(
+            Map.entry("USD", 1), Map.entry("GBP", 2), Map.entry("EUR", 3), Map.entry("CHF", 4),
+            Map.entry("RUB", 5), Map.entry("PLN", 6), Map.entry("BRL", 7), Map.entry("JPY", 8),
+            Map.entry("NOK", 9), Map.entry("IDR", 10), Map.entry("MYR", 11), Map.entry("PHP", 12),
+            Map.entry("SGD", 13), Map.entry("THB", 14), Map.entry("VND", 15), Map.entry("KRW", 16),
+            Map.entry("TRY", 17), Map.entry("UAH", 18), Map.entry("MXN", 19), Map.entry("CAD", 20),
+            Map.entry("AUD", 21), Map.entry("NZD", 22), Map.entry("CNY", 23), Map.entry("INR", 24),
+            Map.entry("CLP", 25), Map.entry("PEN", 26), Map.entry("COP", 27), Map.entry("ZAR", 28),
+            Map.entry("HKD", 29), Map.entry("TWD", 30), Map.entry("SAR", 31), Map.entry("AED", 32),
+            Map.entry("ARS", 34), Map.entry("ILS", 35), Map.entry("KZT", 37),
+            Map.entry("QAR", 39), Map.entry("CRC", 40), Map.entry("UYU", 41));
+
+    // Bedny nabízené v aplikaci (market_hash_name na Steam Marketu)
+    public static final List<String> TRACKED_CASES = List.of(
+            "Kilowatt Case",
+            "Revolution Case",
+            "Spectrum Case",
+            "Danger Zone Case",
+            "Prisma 2 Case",
+            "Prisma Case",
+            "Chroma 3 Case",
+            "Chroma 2 Case",
+            "Chroma Case",
+            "Falchion Case",
+            "Horizon Case",
+            "Gamma 2 Case",
+            "Gamma Case",
+            "Glove Case",
+            "Operation Hydra Case");
+
     private Constants() {
         // Private constructor to prevent instantiation
     }
@@ -7,10 +7,14 @@ module bednovac {
     requires javafx.controls;
     requires javafx.fxml;
 
-    requires java.logging;
+    requires java.management;
     requires java.net.http;
+    requires jdk.httpserver;
+    requires jdk.jfr;
 
-    requires com.fasterxml.jackson.databind;
+    requires com.fasterxml.jackson.core;
+    requires org.slf4j;
+    requires ch.qos.logback.classic; // Implementace SLF4J; bez ní by ji jlink (bez vazby služeb) do obrazu nepřidal
 
     opens com.example.bednovac to javafx.fxml;
     opens com.example.bednovac.controller to javafx.fxml;
@@ -18,4 +22,5 @@ module bednovac {
     exports com.example.bednovac;
     exports com.example.bednovac.controller;
     exports com.example.bednovac.model;
+    exports com.example.bednovac.metrics; // MXBean rozhraní a jeho typy musí být pro JMX přístupné
 }
\ No newline at end of file
@@ -0,0 +1,11 @@
+@echo off
+rem Spouštěč úsporného runtime image (mvn -Pstartup package). Pokud image obsahuje
+rem AppCDS archiv z tréninkového běhu, JVM z něj načte předpřipravené třídy.
+set "DIR=%~dp0"
+set "ARCHIVE=%DIR%..\lib\bednovac.jsa"
+
+if exist "%ARCHIVE%" (
+    "%DIR%java" -XX:SharedArchiveFile="%ARCHIVE%" %JAVA_OPTS% -m bednovac/com.example.bednovac.CaseHarrdener %*
+) else (
+    "%DIR%java" %JAVA_OPTS% -m bednovac/com.example.bednovac.CaseHarrdener %*
+)
@@ -0,0 +1,160 @@
+package com.example.bednovac.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testy optimalizace rozpočtu.
+ */
+class BudgetOptimizerTest {
+
+    private final BudgetOptimizer optimizer = new BudgetOptimizer();
+
+    @Test
+    void zeroBudgetBuysNothing() {
+        BudgetPlan plan = optimizer.optimize(List.of(new BudgetOptimizer.Item("A", 300)), 0, BudgetOptimizer.Mode.SPEND);
+
+        assertTrue(plan.getCounts().isEmpty());
+        assertEquals(0, plan.getSpentCents());
+        assertEquals(0, plan.getRemainingCents());
+    }
+
+    @Test
+    void rejectsNegativeBudget() {
+        assertThrows(IllegalArgumentException.class,
+                () -> optimizer.optimize(List.of(new BudgetOptimizer.Item("A", 300)), -1, BudgetOptimizer.Mode.SPEND));
+    }
+
+    @Test
+    void combinesUnlimitedBundlesToSpendExactly() {
+        BudgetPlan plan = optimizer.optimize(
+                List.of(new BudgetOptimizer.Item("A", 300), new BudgetOptimizer.Item("B", 500)),
+                1100, BudgetOptimizer.Mode.SPEND);
+
+        assertEquals(Map.of("A", 2L, "B", 1L), plan.getCounts());
+        assertEquals(1100, plan.getSpentCents());
+        assertEquals(3, plan.getTotalCount());
+    }
+
+    @Test
+    void reconstructsBinarySplitPiecesWithinLimit() {
+        // Limit 6 se rozdělí na položky 1 + 2 + 3 kusů, potřeba jsou všechny
+        BudgetPlan plan = optimizer.optimize(List.of(
+                new BudgetOptimizer.Item("A", 100, 100, 6),
+                new BudgetOptimizer.Item("B", 150, 150, 1)), 750, BudgetOptimizer.Mode.SPEND);
+
+        assertEquals(Map.of("A", 6L, "B", 1L), plan.getCounts());
+        assertEquals(750, plan.getSpentCents());
+    }
+
+    @Test
+    void greedyTopUpRespectsLimit() {
+        BudgetPlan plan = optimizer.optimize(List.of(new BudgetOptimizer.Item("A", 100, 100, 5)), 1000,
+                BudgetOptimizer.Mode.SPEND);
+
+        assertEquals(Map.of("A", 5L), plan.getCounts());
+        assertEquals(500, plan.getRemainingCents());
+    }
+
+    @Test
+    void valueModeMaximizesValueAndSkipsWorthlessBundles() {
+        BudgetPlan plan = optimizer.optimize(List.of(
+                new BudgetOptimizer.Item("A", 500, 10, BudgetOptimizer.Item.UNLIMITED),
+                new BudgetOptimizer.Item("B", 300, 7, BudgetOptimizer.Item.UNLIMITED),
+                new BudgetOptimizer.Item("C", 100, 0, BudgetOptimizer.Item.UNLIMITED)), 900,
+                BudgetOptimizer.Mode.VALUE);
+
+        assertEquals(Map.of("B", 3L), plan.getCounts());
+        assertEquals(21, plan.getValue(), 1e-9);
+    }
+
+    @Test
+    void matchesExhaustiveSearchOnSmallInputs() {
+        Random random = new Random(42);
+        for (int round = 0; round < 300; round++) {
+            BudgetOptimizer.Mode mode = round % 2 == 0 ? BudgetOptimizer.Mode.SPEND : BudgetOptimizer.Mode.VALUE;
+            BudgetOptimizer.Item[] items = new BudgetOptimizer.Item[3];
+            for (int i = 0; i < items.length; i++) {
+                int limit = random.nextInt(3) == 0 ? BudgetOptimizer.Item.UNLIMITED : random.nextInt(6);
+                items[i] = new BudgetOptimizer.Item("I" + i, 50 + random.nextInt(400), random.nextInt(20), limit);
+            }
+            long budget = random.nextInt(2000);
+
+            BudgetPlan plan = new BudgetOptimizer().optimize(List.of(items), budget, mode);
+
+            assertTrue(plan.getSpentCents() <= budget, "Plan exceeds budget: " + plan);
+            for (BudgetOptimizer.Item item : items) {
+                if (item.getLimit() >= 0) {
+                    assertTrue(plan.getCounts().getOrDefault(item.getName(), 0L) <= item.getLimit(),
+                            "Limit exceeded: " + plan);
+                }
+            }
+            assertEquals(bestByExhaustiveSearch(items, budget, mode), plan.getValue(), 1e-9, "Not optimal: " + plan);
+        }
+    }
+
+    @Test
+    void coarseScalingStaysWithinBudgetAndTopsUp() {
+        long budget = 2_000_000_000L;
+        BudgetPlan plan = optimizer.optimize(List.of(
+                new BudgetOptimizer.Item("A", 997),
+                new BudgetOptimizer.Item("B", 1009),
+                new BudgetOptimizer.Item("C", 1013, 1013, 7)), budget, BudgetOptimizer.Mode.SPEND);
+
+        assertTrue(plan.getSpentCents() <= budget);
+        assertTrue(plan.getRemainingCents() < 997, "Remaining budget not topped up: " + plan);
+        assertTrue(plan.getCounts().getOrDefault("C", 0L) <= 7);
+    }
+
+    @Test
+    void countsAboveIntegerRange() {
+        long budget = 5_000_000_000L;
+        BudgetPlan plan = optimizer.optimize(List.of(new BudgetOptimizer.Item("A", 1)), budget,
+                BudgetOptimizer.Mode.SPEND);
+
+        assertEquals(budget, plan.getCounts().get("A"));
+        assertEquals(budget, plan.getTotalCount());
+        assertEquals(budget, plan.getSpentCents());
+    }
+
+    @Test
+    void remembersRepeatedQueries() {
+        List<BudgetOptimizer.Item> items = List.of(new BudgetOptimizer.Item("A", 300));
+
+        BudgetPlan first = optimizer.optimize(items, 1000, BudgetOptimizer.Mode.SPEND);
+
+        assertSame(first, optimizer.optimize(List.of(new BudgetOptimizer.Item("A", 300)), 1000,
+                BudgetOptimizer.Mode.SPEND));
+    }
+
+    private static double bestByExhaustiveSearch(BudgetOptimizer.Item[] items, long budget,
+            BudgetOptimizer.Mode mode) {
+        return search(items, 0, budget, mode);
+    }
+
+    private static double search(BudgetOptimizer.Item[] items, int index, long remaining, BudgetOptimizer.Mode mode) {
+        if (index == items.length) {
+            return 0;
+        }
+        BudgetOptimizer.Item item = items[index];
+        long maxCount = remaining / item.getCostCents();
+        if (item.getLimit() >= 0) {
+            maxCount = Math.min(maxCount, item.getLimit());
+        }
+        double itemValue = mode == BudgetOptimizer.Mode.SPEND ? item.getCostCents() : item.getValue();
+        double best = 0;
+        for (long count = 0; count <= maxCount; count++) {
+            best = Math.max(best,
+                    count * itemValue + search(items, index + 1, remaining - count * item.getCostCents(), mode));
+        }
+        return best;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.bednovac.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testy převodu částek na setiny měny v {@link BundleCalculator}.
+ */
+class BundleCalculatorTest {
+
+    @Test
+    void parsesPlainAndDecimalAmounts() {
+        assertEquals(1000, BundleCalculator.parseMinorUnits("10"));
+        assertEquals(1050, BundleCalculator.parseMinorUnits("10.5"));
+        assertEquals(50, BundleCalculator.parseMinorUnits(".5"));
+        assertEquals(1234, BundleCalculator.parseMinorUnits(" +12.34 "));
+    }
+
+    @Test
+    void roundsExtraDecimalsHalfUp() {
+        assertEquals(29, BundleCalculator.parseMinorUnits("0.285"));
+        assertEquals(28, BundleCalculator.parseMinorUnits("0.2849"));
+        assertEquals(100, BundleCalculator.parseMinorUnits("0.995"));
+        assertEquals(29, BundleCalculator.toMinorUnits(0.285));
+    }
+
+    @Test
+    void acceptsDecimalCommaAndThousandsSeparators() {
+        assertEquals(1050, BundleCalculator.parseMinorUnits("10,5"));
+        assertEquals(123450, BundleCalculator.parseMinorUnits("1 234,50"));
+        assertEquals(123450, BundleCalculator.parseMinorUnits("1 234,50"));
+        assertEquals(123450, BundleCalculator.parseMinorUnits("1,234.50"));
+        assertEquals(123450, BundleCalculator.parseMinorUnits("1.234,50"));
+        assertEquals(123456700, BundleCalculator.parseMinorUnits("1,234,567"));
+        assertEquals(123456750, BundleCalculator.parseMinorUnits("1.234.567,5"));
+    }
+
+    @Test
+    void rejectsMalformedSeparators() {
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("1.2.3"));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("12,34.5"));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("1,234.567,5"));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("1.234.5"));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits(""));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("."));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("-"));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("abc"));
+    }
+
+    @Test
+    void keepsSignOfNegativeAmounts() {
+        // Záporné částky odmítají až volající (UI, server, CLI) se srozumitelnou zprávou
+        assertEquals(-150, BundleCalculator.parseMinorUnits("-1.50"));
+        assertEquals(-150, BundleCalculator.parseMinorUnits("-1,5"));
+    }
+
+    @Test
+    void rejectsAmountsOutOfLongRange() {
+        assertEquals(Long.MAX_VALUE / 100 * 100, BundleCalculator.parseMinorUnits(Long.toString(Long.MAX_VALUE / 100)));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("92233720368547758.08"));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("1" + "0".repeat(30)));
+    }
+
+    @Test
+    void rejectsExponentNotationWithoutExpandingIt() {
+        // BigDecimal by "1e50000000" rozepsal na 50 milionů číslic (desítky sekund CPU)
+        long started = System.nanoTime();
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("1e50000000"));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("1E5"));
+        assertThrows(NumberFormatException.class, () -> BundleCalculator.parseMinorUnits("1.5e-3"));
+        assertTrue(System.nanoTime() - started < 1_000_000_000L, "Parsing must not expand the exponent");
+    }
+}
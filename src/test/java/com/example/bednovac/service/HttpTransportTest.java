@@ -0,0 +1,84 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.util.Constants;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testy opakování a circuit breakeru v {@link HttpTransport} proti lokálnímu
+ * serveru. Odpovědi nesou {@code Retry-After: 0}, takže opakování nečekají.
+ */
+class HttpTransportTest {
+
+    private static final int ATTEMPTS_PER_REQUEST = Constants.HTTP_MAX_RETRIES + 1;
+
+    @Test
+    void countsOneBreakerFailurePerLogicalRequest() throws IOException {
+        AtomicInteger hits = new AtomicInteger();
+        HttpServer server = startServer(503, hits);
+        try {
+            HttpTransport transport = new HttpTransport();
+            URI uri = uri(server);
+            for (int i = 0; i < Constants.CIRCUIT_BREAKER_FAILURE_THRESHOLD; i++) {
+                HttpResponse<String> response = transport.send(transport.newRequest(uri).build(),
+                        HttpResponse.BodyHandlers.ofString()).join();
+                assertEquals(503, response.statusCode());
+            }
+            assertEquals(Constants.CIRCUIT_BREAKER_FAILURE_THRESHOLD * ATTEMPTS_PER_REQUEST, hits.get());
+
+            // Až teď je obvod rozpojený
+            CompletionException e = assertThrows(CompletionException.class, () -> transport
+                    .send(transport.newRequest(uri).build(), HttpResponse.BodyHandlers.ofString()).join());
+            assertTrue(e.getCause() instanceof CircuitOpenException);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void doesNotOpenCircuitOnHonoredRateLimiting() throws IOException {
+        AtomicInteger hits = new AtomicInteger();
+        HttpServer server = startServer(429, hits);
+        try {
+            HttpTransport transport = new HttpTransport();
+            URI uri = uri(server);
+            int requests = Constants.CIRCUIT_BREAKER_FAILURE_THRESHOLD + 2;
+            for (int i = 0; i < requests; i++) {
+                HttpResponse<String> response = transport.send(transport.newRequest(uri).build(),
+                        HttpResponse.BodyHandlers.ofString()).join();
+                assertEquals(429, response.statusCode());
+            }
+            assertEquals(requests * ATTEMPTS_PER_REQUEST, hits.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static HttpServer startServer(int status, AtomicInteger hits) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            exchange.getResponseHeaders().set("Retry-After", "0");
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        return server;
+    }
+
+    private static URI uri(HttpServer server) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+}
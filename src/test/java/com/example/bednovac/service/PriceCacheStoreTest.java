@@ -0,0 +1,51 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.model.Case;
+import com.example.bednovac.model.Currency;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testy perzistentní cache cen.
+ */
+class PriceCacheStoreTest {
+
+    @Test
+    void closeWritesPendingSnapshotWithoutWaitingForDelay() throws IOException {
+        Path directory = Files.createTempDirectory("price-cache");
+        try {
+            Path file = directory.resolve("price-cache.bin");
+            PriceCacheStore store = new PriceCacheStore(file);
+            PriceCacheStore.Snapshot snapshot = new PriceCacheStore.Snapshot();
+            snapshot.addCase(new Case("Recoil Case", 1.23, Currency.USD), 1_700_000_000_000L);
+            store.scheduleWrite(() -> snapshot);
+
+            long start = System.nanoTime();
+            store.close(); // Odložený zápis se zruší a provede hned
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "close() waited for the write delay");
+
+            PriceCacheStore reopened = new PriceCacheStore(file);
+            try {
+                PriceCacheStore.Snapshot loaded = reopened.loadAsync().join();
+                assertEquals(1, loaded.getCases().size());
+                assertEquals(1.23, loaded.getCases().get(0).getData().getPrice(), 0.0);
+            } finally {
+                reopened.close();
+            }
+            assertTrue(Files.notExists(directory.resolve("price-cache.bin.tmp")));
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.util.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testy segmentovaného úložiště historie cen.
+ */
+class PriceHistoryStoreTest {
+
+    private static final long SEGMENT_SPAN_MILLIS = TimeUnit.DAYS.toMillis(Constants.PRICE_HISTORY_SEGMENT_DAYS + 1);
+
+    @Test
+    void keepsRecordingWhenSegmentNumbersHaveGaps() throws IOException {
+        Path directory = Files.createTempDirectory("price-history");
+        try {
+            long start = 1_700_000_000_000L;
+            try (PriceHistoryStore store = new PriceHistoryStore(directory)) {
+                store.append("series", start, 1.0);
+                store.append("series", start + SEGMENT_SPAN_MILLIS, 2.0); // Druhý segment
+                store.append("series", start + 2 * SEGMENT_SPAN_MILLIS, 3.0); // Třetí segment
+            }
+            Path seriesDirectory = directory.resolve("series");
+            Files.delete(seriesDirectory.resolve("00000000.seg")); // Zůstanou segmenty 1 a 2
+
+            try (PriceHistoryStore store = new PriceHistoryStore(directory)) {
+                store.append("series", start + 3 * SEGMENT_SPAN_MILLIS, 4.0); // Nový segment nesmí být 00000002
+                assertEquals(3, store.stats("series", start, start + 3 * SEGMENT_SPAN_MILLIS).getCount());
+            }
+            try (Stream<Path> files = Files.list(seriesDirectory)) {
+                assertEquals(3, files.count());
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @Test
+    void computesStatsOverAppendedSamples() throws IOException {
+        Path directory = Files.createTempDirectory("price-history");
+        try (PriceHistoryStore store = new PriceHistoryStore(directory)) {
+            store.append("series", 1_000, 1.5);
+            store.append("series", 2_000, 2.5);
+            store.append("series", 3_000, 0.5);
+            PriceStats stats = store.stats("series", 0, 10_000);
+            assertEquals(3, stats.getCount());
+            assertEquals(0.5, stats.getMin(), 1e-9);
+            assertEquals(2.5, stats.getMax(), 1e-9);
+            assertEquals(1.5, stats.getAverage(), 1e-9);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.bednovac.service;
+
+import com.example.bednovac.util.Constants;
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Testy čtení cen ze Steamu v {@link ResponseParser}.
+ */
+class ResponseParserTest {
+
+    @Test
+    void parsesSteamPriceFormats() {
+        assertEquals(1234.56, ResponseParser.parsePrice("$1,234.56"), 1e-9);
+        assertEquals(1234.56, ResponseParser.parsePrice("1.234,56€"), 1e-9);
+        assertEquals(1234.56, ResponseParser.parsePrice("1 234,56 zł"), 1e-9);
+        assertEquals(1.23, ResponseParser.parsePrice("R$ 1,23"), 1e-9);
+        assertEquals(1.0, ResponseParser.parsePrice("1,--€"), 1e-9);
+        assertEquals(1234, ResponseParser.parsePrice("₩ 1,234"), 1e-9);
+        assertEquals(0.5, ResponseParser.parsePrice("0,5 pуб."), 1e-9);
+        assertTrue(Double.isNaN(ResponseParser.parsePrice("--")));
+    }
+
+    @Test
+    void readsThreeDigitsAfterSeparatorAsThousands() {
+        // Proto nelze ze Steamu stahovat ceny v měnách se třemi desetinnými místy
+        assertEquals(750, ResponseParser.parsePrice("0.750 KD"), 1e-9);
+        assertEquals(1234, ResponseParser.parsePrice("1.234 KD"), 1e-9);
+    }
+
+    @Test
+    void steamCurrenciesHaveAtMostTwoDecimals() {
+        for (String code : Constants.STEAM_CURRENCY_IDS.keySet()) {
+            int digits = java.util.Currency.getInstance(code).getDefaultFractionDigits();
+            assertTrue(digits <= 2, code + " has " + digits + " decimals and would be parsed 10^n times too high");
+        }
+    }
+
+    @Test
+    void parsesPriceOverviewResponse() throws Exception {
+        byte[] body = "{\"success\":true,\"lowest_price\":\"1,23€\",\"volume\":\"1,234\",\"median_price\":\"1,20€\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        ResponseParser.PriceOverview overview = new ResponseParser(new JsonFactory()).parsePriceOverview(body);
+        assertEquals(1.23, overview.getLowestPrice(), 1e-9);
+        assertEquals(1.20, overview.getMedianPrice(), 1e-9);
+        assertEquals(1234, overview.getVolume());
+    }
+}